@@ -0,0 +1,113 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.MemberProjection;
+import study.data_jpa.repository.NestedClosedProjections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MemberRepositoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class NamesState {
+
+        @Param({"1", "10", "100", "1000"})
+        int nameCount;
+
+        List<String> names;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            names = new ArrayList<>(nameCount);
+            for (int i = 0; i < nameCount; i++) {
+                names.add(RepositoryState.username(i * 7 % RepositoryState.MEMBER_COUNT));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class InsertState {
+
+        @Param({"100"})
+        int rows;
+    }
+
+    @Benchmark
+    public Page<Member> findByAgeFirstPage(RepositoryState state) {
+        return state.memberRepository.findByAge(10, PageRequest.of(0, 20, Sort.by("username")));
+    }
+
+    @Benchmark
+    public Page<Member> findByAgeLastPage(RepositoryState state) {
+        return state.memberRepository.findByAge(10, PageRequest.of(4, 20, Sort.by("username")));
+    }
+
+    @Benchmark
+    public List<MemberDto> findMemberDto(RepositoryState state) {
+        return state.memberRepository.findMemberDto();
+    }
+
+    @Benchmark
+    public List<Member> findByNames(RepositoryState state, NamesState names) {
+        return state.memberRepository.findByNames(names.names);
+    }
+
+    @Benchmark
+    public Integer bulkAgePlus(RepositoryState state) {
+        return state.transactionTemplate.execute(status -> {
+            int updated = state.memberRepository.bulkAgePlus(50);
+            status.setRollbackOnly();
+            return updated;
+        });
+    }
+
+    @Benchmark
+    public List<Member> hydrateEntity(RepositoryState state) {
+        return state.memberRepository.findListByUsername(RepositoryState.username(42));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> hydrateNestedProjection(RepositoryState state) {
+        return state.memberRepository.findProjectionsByUsername(RepositoryState.username(42));
+    }
+
+    @Benchmark
+    public Page<MemberProjection> hydrateNativeProjection(RepositoryState state) {
+        return state.memberRepository.findByNativeProjection(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Integer saveOneByOne(RepositoryState state, InsertState insert) {
+        return state.transactionTemplate.execute(status -> {
+            for (int i = 0; i < insert.rows; i++) {
+                state.memberRepository.save(new Member("insert" + i, i));
+            }
+            status.setRollbackOnly();
+            return insert.rows;
+        });
+    }
+
+    @Benchmark
+    public Integer saveAllBatched(RepositoryState state, InsertState insert) {
+        return state.transactionTemplate.execute(status -> {
+            List<Member> members = new ArrayList<>(insert.rows);
+            for (int i = 0; i < insert.rows; i++) {
+                members.add(new Member("insert" + i, i));
+            }
+            int saved = state.memberRepository.saveAllBatched(members, insert.rows);
+            status.setRollbackOnly();
+            return saved;
+        });
+    }
+}
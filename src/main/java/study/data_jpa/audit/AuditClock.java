@@ -0,0 +1,37 @@
+package study.data_jpa.audit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 감사 시각용 시계. 같은 밀리초 안의 호출은 캐시된 LocalDateTime 을 그대로 돌려주고,
+ * {@link AuditScope} 가 열려 있으면 그 scope 의 시각을 돌려준다.
+ */
+public final class AuditClock {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    private AuditClock() {
+    }
+
+    public static LocalDateTime now() {
+        AuditScope.Stamp stamp = AuditScope.current();
+        return stamp != null ? stamp.time() : coarseNow();
+    }
+
+    public static LocalDateTime coarseNow() {
+        long millis = System.currentTimeMillis();
+        Tick current = tick;
+        if (current.millis != millis) {
+            current = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE));
+            tick = current;
+        }
+        return current.time;
+    }
+
+    private record Tick(long millis, LocalDateTime time) {
+    }
+}
@@ -0,0 +1,44 @@
+package study.data_jpa.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * 현재 스레드에 감사 값(작성자, 시각)을 고정한다. 벌크 insert 에서 batch 마다 한 번만 값을 만들고
+ * 그 batch 의 모든 엔티티가 같은 값을 쓰게 할 때 사용한다.
+ */
+public final class AuditScope implements AutoCloseable {
+
+    private static final ThreadLocal<Stamp> CURRENT = new ThreadLocal<>();
+
+    private final Stamp previous;
+
+    private AuditScope(Stamp stamp) {
+        this.previous = CURRENT.get();
+        CURRENT.set(stamp);
+    }
+
+    public static AuditScope open(String auditor) {
+        return new AuditScope(new Stamp(auditor, AuditClock.coarseNow()));
+    }
+
+    public static Stamp current() {
+        return CURRENT.get();
+    }
+
+    public void restamp() {
+        Stamp stamp = CURRENT.get();
+        CURRENT.set(new Stamp(stamp.auditor(), AuditClock.coarseNow()));
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public record Stamp(String auditor, LocalDateTime time) {
+    }
+}
@@ -0,0 +1,44 @@
+package study.data_jpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 작성자 값을 요청마다 한 번만 만든다. {@link AuditScope} 가 열려 있으면 scope 의 값을 쓴다.
+ * UUID.randomUUID() 대신 ThreadLocalRandom 으로 만들어 SecureRandom 경합이 없다.
+ */
+public class CachedAuditorAware implements AuditorAware<String> {
+
+    private static final String ATTRIBUTE = CachedAuditorAware.class.getName() + ".auditor";
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        AuditScope.Stamp stamp = AuditScope.current();
+        if (stamp != null) {
+            return Optional.ofNullable(stamp.auditor());
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.of(newAuditor());
+        }
+        String auditor = (String) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = newAuditor();
+            attributes.setAttribute(ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(auditor);
+    }
+
+    private static String newAuditor() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+}
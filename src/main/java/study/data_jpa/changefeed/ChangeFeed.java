@@ -0,0 +1,114 @@
+package study.data_jpa.changefeed;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.data_jpa.audit.AuditClock;
+import study.data_jpa.entity.ChangeRecord.Operation;
+import study.data_jpa.entity.Item;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member, Team, Item 의 insert/update/delete 이벤트를 세션별로 모았다가 커밋 직전에 change_record 에
+ * JDBC batch 로 기록한다. 변경과 같은 트랜잭션이므로 롤백되면 레코드도 남지 않는다.
+ * 벌크 업데이트처럼 이벤트가 없는 변경은 record 로 직접 남긴다. data-jpa.change-feed.enabled 가 false 면 아무것도 남기지 않는다.
+ */
+@Component
+public class ChangeFeed implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT_SQL =
+            "insert into change_record (entity_type, entity_id, operation, recorded_at, attempts, dead_lettered)" +
+                    " values (?, ?, ?, ?, 0, false)";
+
+    private final boolean enabled;
+    private final Map<SessionImplementor, List<Change>> pending = new ConcurrentHashMap<>();
+
+    public ChangeFeed(@Value("${data-jpa.change-feed.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onEvent(event.getSession(), event.getEntity(), event.getId(), Operation.INSERT);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onEvent(event.getSession(), event.getEntity(), event.getId(), Operation.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onEvent(event.getSession(), event.getEntity(), event.getId(), Operation.DELETE);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    public void record(EntityManager em, Class<?> entityType, Object id, Operation operation) {
+        if (!enabled) {
+            return;
+        }
+        record(em.unwrap(SessionImplementor.class), entityType.getSimpleName(), id, operation);
+    }
+
+    private void onEvent(SessionImplementor session, Object entity, Object id, Operation operation) {
+        if (entity instanceof Member || entity instanceof Team || entity instanceof Item) {
+            record(session, entity.getClass().getSimpleName(), id, operation);
+        }
+    }
+
+    private void record(SessionImplementor session, String entityType, Object id, Operation operation) {
+        pending.computeIfAbsent(session, this::register)
+                .add(new Change(entityType, id == null ? null : id.toString(), operation));
+    }
+
+    private List<Change> register(SessionImplementor session) {
+        List<Change> changes = new ArrayList<>();
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> write(s, changes));
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+        return changes;
+    }
+
+    private static void write(SessionImplementor session, List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(AuditClock.now());
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    ps.setString(1, change.entityType());
+                    ps.setString(2, change.entityId());
+                    ps.setString(3, change.operation().name());
+                    ps.setTimestamp(4, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    private record Change(String entityType, String entityId, Operation operation) {
+    }
+}
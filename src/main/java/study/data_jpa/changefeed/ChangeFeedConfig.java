@@ -0,0 +1,46 @@
+package study.data_jpa.changefeed;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "data-jpa.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer changeFeedCustomizer(ChangeFeed changeFeed) {
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                registry.appendListeners(EventType.POST_INSERT, changeFeed);
+                registry.appendListeners(EventType.POST_UPDATE, changeFeed);
+                registry.appendListeners(EventType.POST_DELETE, changeFeed);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+
+        return properties -> properties.merge("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator),
+                (existing, added) -> (IntegratorProvider) () -> Stream.concat(
+                        ((IntegratorProvider) existing).getIntegrators().stream(),
+                        ((IntegratorProvider) added).getIntegrators().stream()).toList());
+    }
+}
@@ -0,0 +1,143 @@
+package study.data_jpa.changefeed;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.audit.AuditClock;
+import study.data_jpa.entity.ChangeRecord;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * change_record 를 id 순으로 batch-size 건씩 읽어 구독자에게 전달하고, 전달된 레코드를 삭제한다(at-least-once).
+ * 구독자 하나가 batch 에서 실패하면 그 구독자에게만 한 건씩 다시 보내 실패한 레코드를 가려낸다. 실패한 레코드는
+ * attempts 를 올려 다음 주기에 다시 전달하고, max-attempts 에 이르면 dead letter 로 표시해 더 이상 전달하지 않는다.
+ * 주기마다 최대 max-batches 번까지 비우되, 가장 오래된 레코드의 지연이 max-lag 을 넘으면 다 비울 때까지 계속한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "data-jpa.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedRelay {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ChangeSubscriber> subscribers;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final long maxLagMillis;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private volatile long lagMillis;
+
+    public ChangeFeedRelay(EntityManager em,
+                           PlatformTransactionManager transactionManager,
+                           List<ChangeSubscriber> subscribers,
+                           @Value("${data-jpa.change-feed.batch-size:500}") int batchSize,
+                           @Value("${data-jpa.change-feed.max-batches:20}") int maxBatches,
+                           @Value("${data-jpa.change-feed.max-attempts:5}") int maxAttempts,
+                           @Value("${data-jpa.change-feed.max-lag:5s}") Duration maxLag) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.subscribers = subscribers;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${data-jpa.change-feed.poll-interval-ms:200}")
+    public void relay() {
+        for (int i = 0; i < maxBatches || lagMillis > maxLagMillis; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    public synchronized int relayBatch() {
+        List<ChangeRecord> changes = transactionTemplate.execute(status ->
+                em.createNamedQuery("ChangeRecord.oldest", ChangeRecord.class)
+                        .setMaxResults(batchSize)
+                        .getResultList());
+        if (changes.isEmpty()) {
+            lagMillis = 0;
+            return 0;
+        }
+        lagMillis = Duration.between(changes.get(0).getRecordedAt(), AuditClock.now()).toMillis();
+
+        Set<Long> failed = new HashSet<>();
+        for (ChangeSubscriber subscriber : subscribers) {
+            deliver(subscriber, changes, failed);
+        }
+
+        List<Long> deliveredIds = new ArrayList<>();
+        for (ChangeRecord change : changes) {
+            if (!failed.contains(change.getId())) {
+                deliveredIds.add(change.getId());
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                em.createNamedQuery("ChangeRecord.deleteIn")
+                        .setParameter("ids", deliveredIds)
+                        .executeUpdate();
+            }
+            if (!failed.isEmpty()) {
+                em.createNamedQuery("ChangeRecord.failed")
+                        .setParameter("ids", failed)
+                        .executeUpdate();
+                int dead = em.createNamedQuery("ChangeRecord.deadLetter")
+                        .setParameter("ids", failed)
+                        .setParameter("maxAttempts", maxAttempts)
+                        .executeUpdate();
+                deadLettered.addAndGet(dead);
+            }
+        });
+        delivered.addAndGet(deliveredIds.size());
+        return changes.size();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("subscribers", subscribers.size());
+        result.put("delivered", delivered.get());
+        result.put("failures", failures.get());
+        result.put("deadLettered", deadLettered.get());
+        result.put("lagMillis", lagMillis);
+        return result;
+    }
+
+    // 한 구독자의 실패가 다른 구독자의 전달을 막지 않도록 구독자마다 따로 처리한다
+    private void deliver(ChangeSubscriber subscriber, List<ChangeRecord> changes, Set<Long> failed) {
+        try {
+            subscriber.onChanges(changes);
+            return;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("change feed batch failed for {}, retrying one by one", subscriber.getClass().getSimpleName(), e);
+        }
+        for (ChangeRecord change : changes) {
+            try {
+                subscriber.onChanges(List.of(change));
+            } catch (RuntimeException e) {
+                failed.add(change.getId());
+                log.warn("change feed delivery failed for {}: {}", subscriber.getClass().getSimpleName(), change, e);
+            }
+        }
+    }
+}
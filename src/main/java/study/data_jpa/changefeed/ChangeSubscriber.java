@@ -0,0 +1,13 @@
+package study.data_jpa.changefeed;
+
+import study.data_jpa.entity.ChangeRecord;
+
+import java.util.List;
+
+/**
+ * ChangeFeedRelay 가 전달하는 변경 레코드를 받는다. 같은 레코드가 다시 전달될 수 있으므로 멱등하게 처리해야 한다.
+ */
+public interface ChangeSubscriber {
+
+    void onChanges(List<ChangeRecord> changes);
+}
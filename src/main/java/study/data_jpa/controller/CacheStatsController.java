@@ -0,0 +1,44 @@
+package study.data_jpa.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheStatsController {
+
+    private final EntityManagerFactory emf;
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            result.put(region, Map.of(
+                    "hit", regionStatistics.getHitCount(),
+                    "miss", regionStatistics.getMissCount(),
+                    "put", regionStatistics.getPutCount()));
+        }
+        result.put("query", Map.of(
+                "hit", statistics.getQueryCacheHitCount(),
+                "miss", statistics.getQueryCacheMissCount(),
+                "put", statistics.getQueryCachePutCount()));
+        result.put("queryPlan", Map.of(
+                "hit", statistics.getQueryPlanCacheHitCount(),
+                "miss", statistics.getQueryPlanCacheMissCount()));
+        return result;
+    }
+}
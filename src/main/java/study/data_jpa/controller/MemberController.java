@@ -1,49 +1,130 @@
 package study.data_jpa.controller;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.data_jpa.controller.MemberResponseCache.CachedResponse;
+import study.data_jpa.dto.CursorResult;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberCursor;
 import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.MemberSummary;
+import study.data_jpa.service.MemberExportService;
+import study.data_jpa.service.MemberPageWriter;
+import study.data_jpa.service.MemberScrollService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CURSOR_SIZE = 2000;
+    private static final int MAX_IDS = MAX_CURSOR_SIZE;
+
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberScrollService memberScrollService;
+    private final MemberResponseCache memberResponseCache;
+    private final MemberPageWriter memberPageWriter;
 
     //@PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members, 100);
     }
 
     @GetMapping("/members/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+    public ResponseEntity<byte[]> findMember(@PathVariable("id") Long id, WebRequest request) {
+        CachedResponse response = memberResponseCache.member(id, () -> memberRepository.findById(id).get());
+        if (request.checkNotModified(response.eTag())) {
+            return null;
+        }
+        return response.toResponseEntity();
+    }
+
+    @GetMapping(value = "/members", params = "ids")
+    public List<MemberDto> findMembers(@RequestParam("ids") List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("ids 는 " + MAX_IDS + "개까지 조회할 수 있습니다: " + distinctIds.size());
+        }
+        return memberRepository.findAllByIdIn(distinctIds).stream()
+                .map(MemberDto::new)
+                .toList();
     }
 
     @GetMapping("/members2/{id}")
-    public String findMember2(@PathVariable("id") Member member) {
+    public String findMember2(@PathVariable("id") MemberDto member, WebRequest request) {
+        String eTag = "\"" + member.getId() + "-" + DigestUtils.md5DigestAsHex(member.getUsername().getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         return member.getUsername();
     }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        Page<MemberDto> map = memberRepository.findAll(pageable).map(member -> new MemberDto(member.getId(),member.getUsername(), null));
-        return map;
+    public ResponseEntity<byte[]> list(@PageableDefault(size = 5) Pageable pageable, WebRequest request) {
+        CachedResponse response = memberResponseCache.page(pageable, out -> memberPageWriter.write(pageable, out));
+        if (request.checkNotModified(response.eTag())) {
+            return null;
+        }
+        return response.toResponseEntity();
     }
 
+    @GetMapping(value = "/members", params = "cursor")
+    public CursorResult<MemberDto> listByCursor(@RequestParam("cursor") String cursor,
+                                                @RequestParam(value = "size", defaultValue = "5") int size) {
+        Window<Member> window = memberRepository.findAllByOrderByUsernameAscIdAsc(
+                MemberCursor.decode(cursor), Limit.of(Math.min(size, MAX_CURSOR_SIZE)));
+        List<MemberDto> content = window.map(member -> new MemberDto(member.getId(), member.getUsername(), null)).getContent();
+        String nextCursor = window.hasNext() ? MemberCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new CursorResult<>(content, nextCursor);
+    }
 
+    @GetMapping("/members/scroll")
+    public CursorResult<MemberSummary> scroll(@RequestParam("age") int age,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", defaultValue = "20") int size) {
+        return memberScrollService.scroll(age, cursor, Math.min(size, MAX_CURSOR_SIZE));
+    }
 
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        response.setCharacterEncoding("UTF-8");
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv");
+            memberExportService.exportCsv(response.getWriter());
+        } else {
+            response.setContentType("application/x-ndjson");
+            memberExportService.exportNdjson(response.getWriter());
+        }
+    }
 
+    // 잘못된 cursor 처럼 요청 값이 틀린 경우는 500 이 아니라 400 으로 돌려준다
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
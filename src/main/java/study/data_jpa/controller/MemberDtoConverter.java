@@ -0,0 +1,23 @@
+package study.data_jpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.service.MemberNearCache;
+
+/**
+ * 경로 변수의 회원 id 를 엔티티 대신 MemberDto 로 바로 변환한다.
+ * Converter 빈은 스프링 부트가 MVC 변환 서비스에 등록하므로, 다른 전략이 필요하면 이 빈을 바꾸면 된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDtoConverter implements Converter<String, MemberDto> {
+
+    private final MemberNearCache memberNearCache;
+
+    @Override
+    public MemberDto convert(String source) {
+        return memberNearCache.findById(Long.valueOf(source)).orElse(null);
+    }
+}
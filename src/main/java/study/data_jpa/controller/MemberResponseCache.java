@@ -0,0 +1,215 @@
+package study.data_jpa.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.function.ThrowingConsumer;
+import org.springframework.util.unit.DataSize;
+import study.data_jpa.changefeed.ChangeSubscriber;
+import study.data_jpa.datasource.ReadWriteRoutingDataSource;
+import study.data_jpa.entity.ChangeRecord;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberChangedEvent;
+import study.data_jpa.repository.TeamChangedEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 회원 조회 응답을 직렬화된 바이트와 ETag 로 보관한다. 단건은 version 으로, 목록 페이지는 본문 해시로 ETag 를 만든다.
+ * 회원이 변경되면 그 회원의 응답과 목록 페이지 응답을 모두 비우고, 팀이 변경되면 목록 페이지만 비운다.
+ * 다른 서버의 변경은 change feed 로 받는다. 놓친 변경이 있어도 ttl 이 지나면 다시 읽으며,
+ * 전체 본문 크기가 max-size 를 넘으면 목록 페이지부터 오래된 순으로 버린다.
+ */
+@Component
+public class MemberResponseCache implements ChangeSubscriber {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final Map<Long, Entry> members = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Entry> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private long bytes;
+
+    public MemberResponseCache(@Value("${data-jpa.response-cache.enabled:true}") boolean enabled,
+                               @Value("${data-jpa.response-cache.max-entries:1000}") int maxEntries,
+                               @Value("${data-jpa.response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${data-jpa.response-cache.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxSize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public CachedResponse member(Long id, Supplier<Member> loader) {
+        return get(members, id, () -> {
+            Member member = loader.get();
+            return new CachedResponse("\"" + member.getId() + "-" + member.getVersion() + "\"", TEXT_UTF8,
+                    member.getUsername().getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    public CachedResponse page(Pageable pageable, ThrowingConsumer<OutputStream> writer) {
+        String key = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return get(pages, key, () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            writer.accept(out);
+            byte[] body = out.toByteArray();
+            return new CachedResponse("\"" + DigestUtils.md5DigestAsHex(body) + "\"", MediaType.APPLICATION_JSON, body);
+        });
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        evict(event.memberId());
+        // 커밋 전에 다른 요청이 옛 값을 다시 채울 수 있으므로 트랜잭션 종료 시 한 번 더 비운다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changedInTransaction().add(event.memberId());
+        }
+    }
+
+    @EventListener
+    public void onTeamChanged(TeamChangedEvent event) {
+        evictPages();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changedInTransaction();
+        }
+    }
+
+    @Override
+    public void onChanges(List<ChangeRecord> changes) {
+        for (ChangeRecord change : changes) {
+            if (change.getEntityType().equals("Member")) {
+                evict(change.getEntityId() == null ? null : Long.valueOf(change.getEntityId()));
+            } else if (change.getEntityType().equals("Team")) {
+                evictPages();
+            }
+        }
+    }
+
+    public synchronized long usedBytes() {
+        return bytes;
+    }
+
+    private <K> CachedResponse get(Map<K, Entry> entries, K key, Supplier<CachedResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                if (System.nanoTime() - cached.expiresAt < 0) {
+                    return cached.response;
+                }
+                remove(entries, key);
+            }
+        }
+
+        // 무효화 직후 다시 채울 때 replica 지연으로 옛 값을 캐시하지 않도록 primary 에서 읽는다
+        long gen = generation.get();
+        CachedResponse loaded = ReadWriteRoutingDataSource.onPrimary(loader);
+        synchronized (this) {
+            if (generation.get() == gen && loaded.body().length <= maxBytes) {
+                put(entries, key, new Entry(loaded, System.nanoTime() + ttlNanos));
+            }
+        }
+        return loaded;
+    }
+
+    private <K> void put(Map<K, Entry> entries, K key, Entry entry) {
+        remove(entries, key);
+        entries.put(key, entry);
+        bytes += entry.response.body().length;
+        if (entries.size() > maxEntries) {
+            removeEldest(entries);
+        }
+        while (bytes > maxBytes) {
+            removeEldest(pages.isEmpty() ? members : pages);
+        }
+    }
+
+    private <K> void removeEldest(Map<K, Entry> entries) {
+        remove(entries, entries.keySet().iterator().next());
+    }
+
+    private <K> void remove(Map<K, Entry> entries, K key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.response.body().length;
+        }
+    }
+
+    private synchronized void evict(Long memberId) {
+        generation.incrementAndGet();
+        if (memberId == null) {
+            clear(members);
+        } else {
+            remove(members, memberId);
+        }
+        clear(pages);
+    }
+
+    private synchronized void evictPages() {
+        generation.incrementAndGet();
+        clear(pages);
+    }
+
+    private void clear(Map<?, Entry> entries) {
+        for (Entry entry : entries.values()) {
+            bytes -= entry.response.body().length;
+        }
+        entries.clear();
+    }
+
+    // 이 트랜잭션에서 바뀐 회원 id. 종료 시 이 회원들과 목록 페이지를 다시 비운다
+    @SuppressWarnings("unchecked")
+    private Set<Long> changedInTransaction() {
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Long> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberResponseCache.this);
+                    ids.forEach(MemberResponseCache.this::evict);
+                    evictPages();
+                }
+            });
+            changed = ids;
+        }
+        return changed;
+    }
+
+    private record Entry(CachedResponse response, long expiresAt) {
+    }
+
+    public record CachedResponse(String eTag, MediaType contentType, byte[] body) {
+
+        public ResponseEntity<byte[]> toResponseEntity() {
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(contentType)
+                    .body(body);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package study.data_jpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.data_jpa.changefeed.ChangeFeedRelay;
+import study.data_jpa.datasource.PoolMetrics;
+import study.data_jpa.metrics.RepositoryMetrics;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final RepositoryMetrics repositoryMetrics;
+    private final PoolMetrics poolMetrics;
+    private final ObjectProvider<ChangeFeedRelay> changeFeedRelay;
+
+    @GetMapping("/metrics/repositories")
+    public Map<String, Map<String, Object>> repositories() {
+        return repositoryMetrics.snapshot();
+    }
+
+    @GetMapping("/metrics/repositories/slow")
+    public List<RepositoryMetrics.SlowCall> slowCalls() {
+        return repositoryMetrics.slowCalls();
+    }
+
+    @GetMapping("/metrics/pool")
+    public Map<String, Object> pool() throws SQLException {
+        return poolMetrics.snapshot();
+    }
+
+    @GetMapping("/metrics/change-feed")
+    public Map<String, Object> changeFeed() {
+        ChangeFeedRelay relay = changeFeedRelay.getIfAvailable();
+        return relay == null ? Map.of("enabled", false) : relay.snapshot();
+    }
+}
@@ -0,0 +1,121 @@
+package study.data_jpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor admissionControlPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                DataSource primary = admission(environment, hikari);
+                List<ReplicaProperties> replicas = Binder.get(environment)
+                        .bind("data-jpa.datasource.replicas", Bindable.listOf(ReplicaProperties.class))
+                        .orElse(List.of());
+                if (!environment.getProperty("data-jpa.datasource.routing.enabled", Boolean.class, false)
+                        || replicas.isEmpty()) {
+                    return primary;
+                }
+
+                List<ReadWriteRoutingDataSource.Replica> targets = new ArrayList<>();
+                for (int i = 0; i < replicas.size(); i++) {
+                    ReplicaProperties properties = replicas.get(i);
+                    String name = "replica" + i;
+                    targets.add(new ReadWriteRoutingDataSource.Replica(name,
+                            admission(environment, replica(name, properties, hikari)),
+                            properties.lagQuery() == null ? "select 0" : properties.lagQuery()));
+                }
+                Duration maxLag = environment.getProperty("data-jpa.datasource.routing.max-lag", Duration.class,
+                        Duration.ofSeconds(1));
+                return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, targets, maxLag));
+            }
+        };
+    }
+
+    /**
+     * 라우팅이 켜졌을 때만 쓰는 설정. replica 지연 점검을 스케줄링하고, 종료 시 replica 커넥션 풀을 닫는다.
+     */
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "data-jpa.datasource.routing.enabled", havingValue = "true")
+    static class RoutingConfig {
+
+        // 트랜잭션이 끝나면 커넥션을 반납해야 open-in-view 로 이어지는 다음 트랜잭션이 다시 라우팅된다
+        @Bean
+        public HibernatePropertiesCustomizer routingConnectionHandlingCustomizer() {
+            return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+
+        @Bean
+        public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource) {
+            return new ReplicaLagMonitor(dataSource);
+        }
+
+        // primary 풀은 spring.datasource 빈으로 닫히지만 replica 풀은 빈이 아니므로 직접 닫는다
+        @Bean
+        public DisposableBean replicaPoolShutdown(DataSource dataSource) {
+            return () -> {
+                if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                    dataSource.unwrap(ReadWriteRoutingDataSource.class).close();
+                }
+            };
+        }
+    }
+
+    private static DataSource admission(Environment environment, HikariDataSource hikari) {
+        if (!environment.getProperty("data-jpa.datasource.admission.enabled", Boolean.class, true)) {
+            return hikari;
+        }
+        int permits = environment.getProperty("data-jpa.datasource.admission.permits", Integer.class,
+                hikari.getMaximumPoolSize());
+        Duration timeout = environment.getProperty("data-jpa.datasource.admission.timeout", Duration.class,
+                Duration.ofSeconds(5));
+        return new AdmissionControlDataSource(hikari, permits, timeout);
+    }
+
+    // primary 의 hikari 설정을 모두 복사하고 접속 정보와 풀 이름, 크기만 replica 값으로 바꾼다
+    private static HikariDataSource replica(String name, ReplicaProperties properties, HikariDataSource primary) {
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setPoolName(name);
+        replica.setJdbcUrl(properties.url());
+        if (properties.username() != null) {
+            replica.setUsername(properties.username());
+        }
+        if (properties.password() != null) {
+            replica.setPassword(properties.password());
+        }
+        if (properties.maximumPoolSize() != null) {
+            replica.setMaximumPoolSize(properties.maximumPoolSize());
+        }
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    record ReplicaProperties(String url, String username, String password, Integer maximumPoolSize, String lagQuery) {
+    }
+}
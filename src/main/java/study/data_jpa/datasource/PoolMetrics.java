@@ -0,0 +1,55 @@
+package study.data_jpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class PoolMetrics {
+
+    private final DataSource dataSource;
+
+    public Map<String, Object> snapshot() throws SQLException {
+        if (!dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+            return describe(dataSource);
+        }
+
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        Map<String, Object> result = describe(routing.getPrimary());
+        result.put("routed", routing.getRouted(ReadWriteRoutingDataSource.PRIMARY));
+        result.put("fallbacks", routing.getFallbacks());
+        Map<String, Object> replicas = new LinkedHashMap<>();
+        for (ReadWriteRoutingDataSource.Replica replica : routing.getReplicas()) {
+            Map<String, Object> target = describe(replica.dataSource());
+            target.put("healthy", routing.isHealthy(replica));
+            target.put("routed", routing.getRouted(replica.name()));
+            replicas.put(replica.name(), target);
+        }
+        result.put("replicas", replicas);
+        return result;
+    }
+
+    private static Map<String, Object> describe(DataSource target) throws SQLException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (target.isWrapperFor(HikariDataSource.class)) {
+            HikariPoolMXBean pool = target.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            if (pool != null) {
+                result.put("active", pool.getActiveConnections());
+                result.put("idle", pool.getIdleConnections());
+                result.put("total", pool.getTotalConnections());
+                result.put("pending", pool.getThreadsAwaitingConnection());
+            }
+        }
+        if (target.isWrapperFor(AdmissionControlDataSource.class)) {
+            result.put("admission", target.unwrap(AdmissionControlDataSource.class).snapshot());
+        }
+        return result;
+    }
+}
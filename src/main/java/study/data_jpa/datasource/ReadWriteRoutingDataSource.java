@@ -0,0 +1,156 @@
+package study.data_jpa.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 트랜잭션은 지연이 max-lag 이내인 replica 에 round-robin 으로, 나머지는 primary 로 보낸다.
+ * 트랜잭션 read-only 여부는 커넥션을 실제로 얻는 시점에 정해지므로 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ * 쓸 수 있는 replica 가 없으면 primary 로 fallback 한다. onPrimary 안에서는 읽기 전용이어도 primary 를 쓴다.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private final Map<String, LongAdder> routed = new LinkedHashMap<>();
+
+    private volatile List<Replica> healthy;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.healthy = this.replicas;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, new LongAdder());
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            routed.put(replica.name(), new LongAdder());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = PRIMARY;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && FORCE_PRIMARY.get() == null) {
+            List<Replica> candidates = healthy;
+            if (candidates.isEmpty()) {
+                fallbacks.increment();
+            } else {
+                key = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())).name();
+            }
+        }
+        routed.get(key).increment();
+        return key;
+    }
+
+    /**
+     * 캐시를 채우는 조회처럼 replica 지연만큼 옛 값을 읽으면 안 되는 작업을 primary 에서 실행한다.
+     * 커넥션은 작업 안에서 처음 쿼리할 때 얻으므로, 트랜잭션도 작업 안에서 시작해야 한다.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * 각 replica 에 lag-query 를 실행해 지연(초)이 max-lag 을 넘거나 조회에 실패한 replica 를 라우팅에서 뺀다.
+     */
+    public void checkReplicas() {
+        List<Replica> available = new ArrayList<>();
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(replica.lagQuery())) {
+                if (rs.next() && rs.getDouble(1) * 1000 <= maxLagMillis) {
+                    available.add(replica);
+                }
+            } catch (SQLException e) {
+                // 연결할 수 없는 replica 는 다음 점검까지 제외한다. 경고는 라우팅에서 빠질 때 한 번만 남긴다
+                if (healthy.contains(replica)) {
+                    log.warn("replica {} lag check failed, removing it from routing", replica.name(), e);
+                } else {
+                    log.debug("replica {} lag check failed", replica.name(), e);
+                }
+            }
+        }
+        healthy = List.copyOf(available);
+    }
+
+    /**
+     * replica 커넥션 풀을 닫는다. primary 는 만든 쪽(spring.datasource 빈)이 닫는다.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource().isWrapperFor(Closeable.class)) {
+                    replica.dataSource().unwrap(Closeable.class).close();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isHealthy(Replica replica) {
+        return healthy.contains(replica);
+    }
+
+    public long getRouted(String key) {
+        return routed.get(key).sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public record Replica(String name, DataSource dataSource, String lagQuery) {
+    }
+}
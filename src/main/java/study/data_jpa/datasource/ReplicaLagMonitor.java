@@ -0,0 +1,23 @@
+package study.data_jpa.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 라우팅이 켜져 있으면(DataSourceConfig.RoutingConfig) 주기적으로 replica 지연을 점검해 라우팅 대상에 반영한다.
+ */
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+    private final DataSource dataSource;
+
+    @Scheduled(fixedDelayString = "${data-jpa.datasource.routing.lag-check-interval-ms:1000}")
+    public void check() throws SQLException {
+        if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+            dataSource.unwrap(ReadWriteRoutingDataSource.class).checkReplicas();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.data_jpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class CursorResult<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorResult(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+}
@@ -1,6 +1,7 @@
 package study.data_jpa.dto;
 
 import lombok.Data;
+import study.data_jpa.entity.Member;
 
 @Data
 public class MemberDto {
@@ -14,5 +15,9 @@ public class MemberDto {
         this.username = username;
         this.teamName = teamName;
     }
+
+    public MemberDto(Member member) {
+        this(member.getId(), member.getUsername(), member.getTeam() == null ? null : member.getTeam().getName());
+    }
 }
 
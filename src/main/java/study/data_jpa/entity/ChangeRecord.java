@@ -0,0 +1,55 @@
+package study.data_jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member, Team, Item 변경 한 건. 변경과 같은 트랜잭션에서 JDBC 로 insert 되고,
+ * 구독자에게 전달된 뒤 삭제된다. entityId 가 null 이면 벌크 업데이트처럼 대상을 특정할 수 없는 변경이다.
+ * 전달에 실패할 때마다 attempts 가 오르고, 한도에 이르면 deadLettered 로 남아 더 이상 전달되지 않는다.
+ */
+@Entity
+@NamedQueries({
+        @NamedQuery(name = "ChangeRecord.oldest",
+                query = "select c from ChangeRecord c where c.deadLettered = false order by c.id"),
+        @NamedQuery(name = "ChangeRecord.deleteIn", query = "delete from ChangeRecord c where c.id in :ids"),
+        @NamedQuery(name = "ChangeRecord.failed",
+                query = "update ChangeRecord c set c.attempts = c.attempts + 1 where c.id in :ids"),
+        @NamedQuery(name = "ChangeRecord.deadLetter",
+                query = "update ChangeRecord c set c.deadLettered = true where c.id in :ids and c.attempts >= :maxAttempts")})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class ChangeRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_record_id")
+    private Long id;
+
+    @Column(length = 20, nullable = false)
+    private String entityType;
+
+    @Column(length = 64)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Operation operation;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    private int attempts;
+
+    private boolean deadLettered;
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE, BULK_UPDATE
+    }
+}
@@ -5,7 +5,7 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.springframework.data.domain.Persistable;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -13,22 +13,22 @@ import java.time.LocalDateTime;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Item implements Persistable<String> {
+public class Item extends AssignedIdEntity<String> {
 
     @Id
     private String id;
 
     public Item(String id) { this.id = id; }
 
-    public LocalDateTime createdDate;
+    @CreatedDate
+    private LocalDateTime createdDate;
 
     @Override
     public String getId() {
         return id;
     }
 
-    @Override
-    public boolean isNew() {
-        return createdDate == null;
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
     }
 }
@@ -2,19 +2,58 @@ package study.data_jpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import study.data_jpa.repository.MemberEntityListener;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username", columnList = "age, username, member_id"),
+        @Index(name = "idx_member_team_id", columnList = "team_id")})
+@NamedQueries({
+        @NamedQuery(name = "Member.all", query = "select m from Member m"),
+        @NamedQuery(name = "Member.count", query = "select count(m) from Member m"),
+        @NamedQuery(name = "Member.countByAge", query = "select count(m) from Member m where m.age = :age"),
+        @NamedQuery(name = "Member.pageByAge",
+                query = "select m from Member m where m.age = :age order by m.username desc"),
+        @NamedQuery(name = "Member.pageByAgeAfter",
+                query = "select m from Member m where m.age = :age" +
+                        " and (m.username < :username or (m.username = :username and m.id < :id))" +
+                        " order by m.username desc, m.id desc"),
+        @NamedQuery(name = "Member.inUsernames", query = "select m from Member m where m.username in :names"),
+        @NamedQuery(name = "Member.idsFromAge",
+                query = "select m.id from Member m where m.age >= :age and m.id > :from order by m.id"),
+        @NamedQuery(name = "Member.bulkAgePlus",
+                query = "update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age"),
+        @NamedQuery(name = "Member.bulkAgePlusRange",
+                query = "update Member m set m.age = m.age + 1, m.version = m.version + 1" +
+                        " where m.age >= :age and m.id > :from and m.id <= :to"),
+        @NamedQuery(name = "Member.incrementAge",
+                query = "update Member m set m.age = m.age + :delta, m.version = m.version + 1 where m.id = :id")})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "Member.nativeCount", query = "select count(*) from member"),
+        @NamedNativeQuery(name = "Member.unnestUsernames",
+                query = "select m.* from member m join unnest(?1) as n(username) on m.username = n.username",
+                resultClass = Member.class)})
+@EntityListeners(MemberEntityListener.class)
+@DynamicUpdate
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member extends BaseEntity {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -0,0 +1,63 @@
+package study.data_jpa.metrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리포지토리 메서드 하나의 누적 지표. 지연 시간은 최근 {@value #RESERVOIR_SIZE}건으로 백분위를 계산한다.
+ */
+public class MethodMetrics {
+
+    private static final int RESERVOIR_SIZE = 1024;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder entities = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(RESERVOIR_SIZE);
+    private final AtomicLong samples = new AtomicLong();
+
+    public void record(long nanos, long statementCount, long rowCount, long entityCount, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        statements.add(statementCount);
+        rows.add(rowCount);
+        entities.add(entityCount);
+        latencies.set((int) (samples.getAndIncrement() % RESERVOIR_SIZE), nanos);
+    }
+
+    public Map<String, Object> snapshot() {
+        int size = (int) Math.min(samples.get(), RESERVOIR_SIZE);
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", calls.sum());
+        result.put("errors", errors.sum());
+        result.put("statements", statements.sum());
+        result.put("rows", rows.sum());
+        result.put("entities", entities.sum());
+        result.put("p50Ms", percentileMillis(sorted, 0.50));
+        result.put("p99Ms", percentileMillis(sorted, 0.99));
+        return result;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
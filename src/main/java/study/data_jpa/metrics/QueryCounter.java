@@ -0,0 +1,60 @@
+package study.data_jpa.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 현재 스레드에서 준비된 SQL 수와 로딩된 엔티티 수를 센다.
+ * Hibernate StatementInspector / PostLoad 리스너로 등록된다.
+ */
+@Component
+public class QueryCounter implements StatementInspector, PostLoadEventListener {
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITIES = 1;
+
+    private final ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[2]);
+    private final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        counts.get()[STATEMENTS]++;
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * action 실행 중 현재 스레드에서 준비된 SQL 을 모은다. 실행 계획 검증 등에 쓴다.
+     */
+    public List<String> capture(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        captured.set(statements);
+        try {
+            action.run();
+        } finally {
+            captured.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        counts.get()[ENTITIES]++;
+    }
+
+    public long statements() {
+        return counts.get()[STATEMENTS];
+    }
+
+    public long entities() {
+        return counts.get()[ENTITIES];
+    }
+}
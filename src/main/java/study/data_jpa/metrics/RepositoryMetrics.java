@@ -0,0 +1,60 @@
+package study.data_jpa.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+@Component
+public class RepositoryMetrics {
+
+    private static final int SLOW_SAMPLE_SIZE = 50;
+
+    private final long slowThresholdNanos;
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final Deque<SlowCall> slowCalls = new ArrayDeque<>();
+
+    public RepositoryMetrics(@Value("${data-jpa.metrics.slow-threshold:200ms}") Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    public void record(String method, long nanos, long statements, long rows, long entities, boolean failed) {
+        methods.computeIfAbsent(method, key -> new MethodMetrics())
+                .record(nanos, statements, rows, entities, failed);
+
+        if (nanos >= slowThresholdNanos) {
+            SlowCall slowCall = new SlowCall(method, nanos / 1_000_000, statements, rows);
+            log.warn("slow repository call {}", slowCall);
+            synchronized (slowCalls) {
+                if (slowCalls.size() == SLOW_SAMPLE_SIZE) {
+                    slowCalls.removeFirst();
+                }
+                slowCalls.addLast(slowCall);
+            }
+        }
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        methods.forEach((method, metrics) -> result.put(method, metrics.snapshot()));
+        return result;
+    }
+
+    public List<SlowCall> slowCalls() {
+        synchronized (slowCalls) {
+            return List.copyOf(slowCalls);
+        }
+    }
+
+    public record SlowCall(String method, long millis, long statements, long rows) {
+    }
+}
@@ -0,0 +1,65 @@
+package study.data_jpa.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 리포지토리 프록시 호출마다 지연 시간, SQL 수, 반환 행 수, 로딩된 엔티티 수를 기록한다.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final RepositoryMetrics metrics;
+    private final QueryCounter queryCounter;
+
+    public RepositoryMetricsInterceptor(String repositoryName, RepositoryMetrics metrics, QueryCounter queryCounter) {
+        this.repositoryName = repositoryName;
+        this.metrics = metrics;
+        this.queryCounter = queryCounter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long statements = queryCounter.statements();
+        long entities = queryCounter.entities();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(repositoryName + "." + invocation.getMethod().getName(),
+                    System.nanoTime() - start,
+                    queryCounter.statements() - statements,
+                    rows(result),
+                    queryCounter.entities() - entities,
+                    failed);
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,52 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.audit.AuditScope;
+
+/**
+ * JDBC batch 단위로 persist 하고 batch 마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게 한다.
+ * clear 되므로 호출 전에 영속 상태였던 엔티티도 준영속이 된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchInserter {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final AuditorAware<String> auditorAware;
+
+    @Transactional
+    public <T> int persistAll(Iterable<T> entities, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        // 감사 값(작성자, 시각)은 batch 마다 한 번만 만들어 모든 엔티티에 같은 값을 넣는다
+        try (AuditScope auditScope = AuditScope.open(auditorAware.getCurrentAuditor().orElse(null))) {
+            int count = 0;
+            for (T entity : entities) {
+                em.persist(entity);
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                    auditScope.restamp();
+                }
+            }
+            em.flush();
+            em.clear();
+            return count;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package study.data_jpa.repository;
+
+/**
+ * chunk 단위 벌크 업데이트의 진행 상황. chunk 가 커밋(또는 바깥 트랜잭션에 합류)된 뒤 전달된다.
+ */
+public record BulkUpdateProgress(int chunk, long lastId, int chunkRows, long totalRows) {
+}
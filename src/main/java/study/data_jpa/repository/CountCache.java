@@ -0,0 +1,78 @@
+package study.data_jpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 count 쿼리 결과를 (쿼리 + 파라미터) 단위로 캐시한다.
+ * approximate 모드에서는 엔티티 단건 변경으로는 무효화하지 않고 TTL 만료까지 이전 값을 돌려준다.
+ */
+@Component
+public class CountCache {
+
+    private final long ttlNanos;
+    private final boolean approximate;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public CountCache(@Value("${data-jpa.count-cache.ttl:30s}") Duration ttl,
+                      @Value("${data-jpa.count-cache.approximate:false}") boolean approximate) {
+        this.ttlNanos = ttl.toNanos();
+        this.approximate = approximate;
+    }
+
+    public long get(String query, Object[] params, LongSupplier counter) {
+        String key = query + Arrays.toString(params);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            return entry.count;
+        }
+
+        long gen = generation.get();
+        long count = counter.getAsLong();
+        if (generation.get() == gen) {
+            entries.put(key, new Entry(count, now + ttlNanos));
+        }
+        return count;
+    }
+
+    public void onEntityWrite() {
+        if (!approximate) {
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        clear();
+        // 커밋 전에 다른 트랜잭션이 옛 값을 다시 채울 수 있으므로 트랜잭션 종료 시 한 번 더 비운다
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CountCache.this);
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private record Entry(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package study.data_jpa.repository;
+
+import study.data_jpa.entity.Item;
+
+import java.util.Collection;
+
+public interface ItemRepositoryCustom {
+    int upsertAll(Collection<Item> items);
+}
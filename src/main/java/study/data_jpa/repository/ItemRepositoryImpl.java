@@ -0,0 +1,74 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.audit.AuditClock;
+import study.data_jpa.changefeed.ChangeFeed;
+import study.data_jpa.entity.ChangeRecord.Operation;
+import study.data_jpa.entity.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EntityManager em;
+    private final ChangeFeed changeFeed;
+
+    /**
+     * 이미 있는 id 는 건너뛰고 없는 것만 insert 한다. 영속성 컨텍스트를 거치지 않는 JDBC batch 로 실행된다.
+     */
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items) {
+        em.flush();
+        Timestamp now = Timestamp.valueOf(AuditClock.now());
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "merge into item t using (values (?, ?)) s(id, created_date) on t.id = s.id" +
+                            " when not matched then insert (id, created_date) values (s.id, s.created_date)")) {
+                int inserted = 0;
+                List<String> batchIds = new ArrayList<>(BATCH_SIZE);
+                for (Item item : items) {
+                    ps.setString(1, item.getId());
+                    ps.setTimestamp(2, now);
+                    ps.addBatch();
+                    batchIds.add(item.getId());
+                    if (batchIds.size() == BATCH_SIZE) {
+                        inserted += recordInserted(batchIds, ps.executeBatch());
+                    }
+                }
+                inserted += recordInserted(batchIds, ps.executeBatch());
+                return inserted;
+            }
+        });
+    }
+
+    /**
+     * insert 된 id 를 변경 피드에 남기고 insert 된 행 수를 돌려준다.
+     * 드라이버가 SUCCESS_NO_INFO 를 돌려주면 insert 여부를 알 수 없으므로, 피드에는 insert 로 남기고(구독자는
+     * 어차피 at-least-once 로 받으므로 중복 통지는 허용된다) 반환하는 행 수에는 세지 않는다.
+     */
+    private int recordInserted(List<String> batchIds, int[] counts) {
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                total += counts[i];
+            }
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                changeFeed.record(em, Item.class, batchIds.get(i), Operation.INSERT);
+            }
+        }
+        batchIds.clear();
+        return total;
+    }
+}
@@ -0,0 +1,11 @@
+package study.data_jpa.repository;
+
+/**
+ * 회원이 변경되었음을 알린다. memberId 가 null 이면 벌크 업데이트처럼 대상을 특정할 수 없는 변경이다.
+ */
+public record MemberChangedEvent(Long memberId) {
+
+    public static MemberChangedEvent all() {
+        return new MemberChangedEvent(null);
+    }
+}
@@ -0,0 +1,46 @@
+package study.data_jpa.repository;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * (username, id) keyset 위치를 클라이언트에 노출할 불투명 토큰으로 변환한다.
+ */
+public final class MemberCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private MemberCursor() {
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        Map<String, Object> keys = keyset.getKeys();
+        String raw = keys.get("id") + String.valueOf(SEPARATOR) + keys.get("username");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("username", raw.substring(idx + 1));
+            keys.put("id", Long.valueOf(raw.substring(0, idx)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + token, e);
+        }
+    }
+}
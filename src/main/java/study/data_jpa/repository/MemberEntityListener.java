@@ -0,0 +1,23 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import study.data_jpa.entity.Member;
+
+@RequiredArgsConstructor
+public class MemberEntityListener {
+
+    private final CountCache countCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Member member) {
+        countCache.onEntityWrite();
+        eventPublisher.publishEvent(new MemberChangedEvent(member.getId()));
+    }
+}
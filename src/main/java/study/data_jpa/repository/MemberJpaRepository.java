@@ -1,6 +1,10 @@
 package study.data_jpa.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.Query;
+import study.data_jpa.changefeed.ChangeFeed;
+import study.data_jpa.entity.ChangeRecord.Operation;
 import study.data_jpa.entity.Member;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -15,6 +19,15 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -25,7 +38,7 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery("Member.all", Member.class)
                 .getResultList();
     }
 
@@ -35,7 +48,7 @@ public class MemberJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class)
+        return em.createNamedQuery("Member.count", Long.class)
                 .getSingleResult();
     }
 
@@ -46,24 +59,37 @@ public class MemberJpaRepository {
 
 
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc")
+        return em.createNamedQuery("Member.pageByAge", Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
+    public List<Member> findByPageAfter(int age, String username, Long id, int limit) {
+        return em.createNamedQuery("Member.pageByAgeAfter", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", username)
+                .setParameter("id", id)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public long findByPageCnt(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createNamedQuery("Member.countByAge", Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age ")
+        int resultCount = em.createNamedQuery("Member.bulkAgePlus")
                 .setParameter("age", age)
                 .executeUpdate();
-
+        changeFeed.record(em, Member.class, null, Operation.BULK_UPDATE);
+        // 엔티티 리스너를 거치지 않으므로 count 캐시와 회원 캐시를 직접 비운다
+        countCache.invalidateAll();
+        eventPublisher.publishEvent(MemberChangedEvent.all());
+        return resultCount;
     }
 
 
@@ -1,19 +1,22 @@
 package study.data_jpa.repository;
 
 import jakarta.persistence.QueryHint;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
-import study.data_jpa.entity.MemberProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
@@ -22,47 +25,51 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Stream<MemberDto> streamMemberDto();
 
+    @ReadOnlyQuery
     List<Member> findListByUsername(String username);
     Member findMemberByUsername(String username);
 
     Optional<Member> findOptionalByUsername(String username);
 
-    @Query(value = "select m from Member m left join team",
-        countQuery = "select count(m) from Member m"
-    )
-    Page<Member> findByAge(int age, Pageable pageable);
-
+    @ReadOnlyQuery
     Slice<Member> findSliceByAge(int age, PageRequest pageRequest);
 
-    @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    @ReadOnlyQuery
+    Window<Member> findAllByOrderByUsernameAscIdAsc(ScrollPosition position, Limit limit);
+
+    @ReadOnlyQuery
+    Window<MemberSummary> findByAgeOrderByUsernameAscIdAsc(int age, ScrollPosition position, Limit limit);
 
     @Override
     @EntityGraph(attributePaths = {"team"})
     List<Member> findAll();
 
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @EntityGraph(attributePaths = {"team"})
+    List<Member> findAllByIdIn(Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.flushMode", value = "MANUAL"),
+            @QueryHint(name = "org.hibernate.cacheable", value = "true")})
     List<Member> findReadOnlyByUsername(String username);
 
     List<NestedClosedProjections> findProjectionsByUsername(@Param("username") String username);
 
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
-
-    @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
-            "from member m left join team t",
-            countQuery = "select count(*) from member",
-            nativeQuery = true)
-    Page<MemberProjection> findByNativeProjection(Pageable pageable);
 }
 
@@ -1,9 +1,35 @@
 package study.data_jpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.MemberProjection;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    List<Member> findByNames(List<String> names);
+
+    Page<Member> findByAge(int age, Pageable pageable);
+
+    Page<MemberProjection> findByNativeProjection(Pageable pageable);
+
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    int bulkAgePlus(int age);
+
+    long bulkAgePlus(int age, int chunkSize, Consumer<BulkUpdateProgress> progress);
+
+    int incrementAge(Long id, int delta);
+
+    Member updateWithRetry(Long id, Consumer<Member> change, int maxAttempts);
+
+    int saveAllBatched(Iterable<Member> members, int batchSize);
+
+    <T> T readOnly(Supplier<T> finder);
 }
@@ -1,21 +1,310 @@
 package study.data_jpa.repository;
 
 import jakarta.persistence.EntityManager;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.Query;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.changefeed.ChangeFeed;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.ChangeRecord.Operation;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.MemberProjection;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.applySorting;
 
-@RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final CountCache countCache;
+    private final BatchInserter batchInserter;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeFeed changeFeed;
+    private final int inListChunkSize;
+    private final int inListArrayThreshold;
 
+    public MemberRepositoryImpl(EntityManager em,
+                                CountCache countCache,
+                                BatchInserter batchInserter,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                ChangeFeed changeFeed,
+                                @Value("${data-jpa.in-list.chunk-size:1024}") int inListChunkSize,
+                                @Value("${data-jpa.in-list.array-threshold:8192}") int inListArrayThreshold) {
+        this.em = em;
+        this.countCache = countCache;
+        this.batchInserter = batchInserter;
+        this.transactionManager = transactionManager;
+        this.eventPublisher = eventPublisher;
+        this.changeFeed = changeFeed;
+        this.inListChunkSize = inListChunkSize;
+        this.inListArrayThreshold = inListArrayThreshold;
+    }
 
     @Override
     public List<Member> findMemberCustom() {
-        return em.createQuery("select m from Member m")
+        return em.createNamedQuery("Member.all", Member.class)
                 .getResultList();
     }
-}
 
+    /**
+     * IN 절 파라미터 수는 2의 거듭제곱으로 패딩되고(hibernate.query.in_clause_parameter_padding),
+     * chunk-size 를 넘으면 나눠 조회한 뒤 합친다. array-threshold 를 넘으면 이름 배열 하나를
+     * unnest 로 조인해 한 번에 조회한다.
+     */
+    @Override
+    public List<Member> findByNames(List<String> names) {
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        if (distinctNames.isEmpty()) {
+            return List.of();
+        }
+        if (distinctNames.size() > inListArrayThreshold) {
+            return em.createNamedQuery("Member.unnestUsernames", Member.class)
+                    .setParameter(1, distinctNames.toArray(String[]::new))
+                    .getResultList();
+        }
+
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += inListChunkSize) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + inListChunkSize, distinctNames.size()));
+            result.addAll(em.createNamedQuery("Member.inUsernames", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    // 정렬 조건이 요청마다 달라 named query 로 고정할 수 없는 페이지 쿼리는 문자열로 만들고, 해석 결과는 plan cache 가 재사용한다
+    @Override
+    public Page<Member> findByAge(int age, Pageable pageable) {
+        String jpql = applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        List<Member> content = paging(em.createQuery(jpql, Member.class), pageable)
+                .setParameter("age", age)
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.countByAge", new Object[]{age},
+                        () -> em.createNamedQuery("Member.countByAge", Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Page<MemberProjection> findByNativeProjection(Pageable pageable) {
+        String sql = applySorting("select m.member_id as id, m.username, t.name as teamName " +
+                "from member m left join team t on m.team_id = t.team_id", pageable.getSort(), "m");
+        List<Object[]> rows = paging(em.createNativeQuery(sql), pageable).getResultList();
+        List<MemberProjection> content = rows.stream()
+                .map(row -> (MemberProjection) new MemberProjectionRow(((Number) row[0]).longValue(), (String) row[1], (String) row[2]))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("member.count", new Object[0],
+                        () -> ((Number) em.createNamedQuery("Member.nativeCount").getSingleResult()).longValue()));
+    }
+
+    @Override
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        String jpql = applySorting("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) " +
+                "from Member m left join m.team t", pageable.getSort(), "m");
+        List<MemberDto> content = paging(em.createQuery(jpql, MemberDto.class), pageable)
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get("Member.count", new Object[0],
+                        () -> em.createNamedQuery("Member.count", Long.class)
+                                .getSingleResult()));
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlus(int age) {
+        em.flush();
+        int resultCount = em.createNamedQuery("Member.bulkAgePlus")
+                .setParameter("age", age)
+                .executeUpdate();
+        changeFeed.record(em, Member.class, null, Operation.BULK_UPDATE);
+        refreshAffected(member -> member.getAge() >= age);
+        countCache.invalidateAll();
+        eventPublisher.publishEvent(MemberChangedEvent.all());
+        return resultCount;
+    }
+
+    /**
+     * PK 순서로 chunkSize 건씩 나눠 업데이트한다. 바깥 트랜잭션이 없으면 chunk 마다 커밋되어
+     * 락을 짧게 잡고, 바깥 트랜잭션이 있으면 그 트랜잭션에 합류한다.
+     */
+    @Override
+    public long bulkAgePlus(int age, int chunkSize, Consumer<BulkUpdateProgress> progress) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long lastId = 0;
+        long totalRows = 0;
+        int chunk = 0;
+        while (true) {
+            long from = lastId;
+            long[] result = transactionTemplate.execute(status -> {
+                List<Long> ids = em.createNamedQuery("Member.idsFromAge", Long.class)
+                        .setParameter("age", age)
+                        .setParameter("from", from)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+
+                long to = ids.get(ids.size() - 1);
+                int updated = em.createNamedQuery("Member.bulkAgePlusRange")
+                        .setParameter("age", age)
+                        .setParameter("from", from)
+                        .setParameter("to", to)
+                        .executeUpdate();
+                changeFeed.record(em, Member.class, null, Operation.BULK_UPDATE);
+                refreshAffected(member -> member.getAge() >= age && member.getId() > from && member.getId() <= to);
+                return new long[]{to, updated};
+            });
+
+            if (result == null) {
+                break;
+            }
+            lastId = result[0];
+            totalRows += result[1];
+            countCache.invalidateAll();
+            eventPublisher.publishEvent(MemberChangedEvent.all());
+            progress.accept(new BulkUpdateProgress(++chunk, lastId, (int) result[1], totalRows));
+        }
+        return totalRows;
+    }
+
+    /**
+     * 읽지 않고 DB 에서 바로 더한다. 경합이 심한 행도 버전 충돌 없이 반영된다.
+     */
+    @Override
+    @Transactional
+    public int incrementAge(Long id, int delta) {
+        em.flush();
+        int updated = em.createNamedQuery("Member.incrementAge")
+                .setParameter("delta", delta)
+                .setParameter("id", id)
+                .executeUpdate();
+        changeFeed.record(em, Member.class, id, Operation.UPDATE);
+        refreshAffected(member -> member.getId().equals(id));
+        countCache.invalidateAll();
+        eventPublisher.publishEvent(new MemberChangedEvent(id));
+        return updated;
+    }
+
+    /**
+     * 매 시도를 새 트랜잭션에서 실행하고, 낙관적 락 충돌이 나면 maxAttempts 까지 다시 읽어서 재시도한다.
+     */
+    @Override
+    public Member updateWithRetry(Long id, Consumer<Member> change, int maxAttempts) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Member member = em.find(Member.class, id);
+                    if (member == null) {
+                        throw new EmptyResultDataAccessException("Member not found: " + id, 1);
+                    }
+                    change.accept(member);
+                    em.flush();
+                    return member;
+                });
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(TimeUnit.MILLISECONDS.toNanos(attempt)));
+            }
+        }
+    }
+
+    @Override
+    public int saveAllBatched(Iterable<Member> members, int batchSize) {
+        return batchInserter.persistAll(members, batchSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> T readOnly(Supplier<T> finder) {
+        Session session = em.unwrap(Session.class);
+        boolean defaultReadOnly = session.isDefaultReadOnly();
+        FlushMode flushMode = session.getHibernateFlushMode();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        try {
+            return finder.get();
+        } finally {
+            session.setDefaultReadOnly(defaultReadOnly);
+            session.setHibernateFlushMode(flushMode);
+        }
+    }
+
+    // 영속성 컨텍스트 전체를 비우지 않고 업데이트 대상이었던 회원만 다시 읽는다
+    private void refreshAffected(Predicate<Member> affectedByUpdate) {
+        List<Member> affected = new ArrayList<>();
+        for (Map.Entry<Object, EntityEntry> entry : em.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof Member member && affectedByUpdate.test(member)) {
+                affected.add(member);
+            }
+        }
+        affected.forEach(em::refresh);
+    }
+
+    private static <Q extends Query> Q paging(Q query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
+    private record MemberProjectionRow(Long id, String username, String teamName) implements MemberProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getTeamName() {
+            return teamName;
+        }
+    }
+}
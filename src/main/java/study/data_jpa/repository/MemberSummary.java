@@ -0,0 +1,8 @@
+package study.data_jpa.repository;
+
+public interface MemberSummary {
+
+    Long getId();
+    String getUsername();
+    int getAge();
+}
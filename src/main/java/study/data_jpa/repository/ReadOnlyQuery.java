@@ -0,0 +1,25 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 조회 결과를 읽기 전용 엔티티로 받는다. 스냅샷을 만들지 않아 dirty checking 대상이 아니며,
+ * 조회 전에 flush 하지 않고 readOnly 트랜잭션으로 실행된다.
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+@QueryHints(value = {
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.flushMode", value = "MANUAL")})
+public @interface ReadOnlyQuery {
+}
@@ -0,0 +1,7 @@
+package study.data_jpa.repository;
+
+/**
+ * 팀이 변경되었음을 알린다. 팀 이름은 회원 목록 응답에 들어가므로 목록 캐시를 비우는 데 쓴다.
+ */
+public record TeamChangedEvent(Long teamId) {
+}
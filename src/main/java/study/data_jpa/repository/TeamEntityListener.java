@@ -0,0 +1,21 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import study.data_jpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Team team) {
+        eventPublisher.publishEvent(new TeamChangedEvent(team.getId()));
+    }
+}
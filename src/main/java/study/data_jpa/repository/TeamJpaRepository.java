@@ -23,7 +23,7 @@ public class TeamJpaRepository {
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t", Team.class)
+        return em.createNamedQuery("Team.all", Team.class)
                 .getResultList();
     }
 
@@ -33,7 +33,7 @@ public class TeamJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(t) from Team m", Long.class)
+        return em.createNamedQuery("Team.count", Long.class)
                 .getSingleResult();
     }
 
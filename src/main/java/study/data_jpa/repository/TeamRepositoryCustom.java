@@ -0,0 +1,7 @@
+package study.data_jpa.repository;
+
+import study.data_jpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+    int saveAllBatched(Iterable<Team> teams, int batchSize);
+}
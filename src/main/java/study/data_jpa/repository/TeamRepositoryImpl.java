@@ -0,0 +1,15 @@
+package study.data_jpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import study.data_jpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final BatchInserter batchInserter;
+
+    @Override
+    public int saveAllBatched(Iterable<Team> teams, int batchSize) {
+        return batchInserter.persistAll(teams, batchSize);
+    }
+}
@@ -0,0 +1,116 @@
+package study.data_jpa.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.datasource.ReadWriteRoutingDataSource;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * window 동안 들어온 findById 요청을 모아 IN 쿼리 한 번으로 조회한다(DataLoader 방식).
+ * 같은 id 에 대한 동시 요청은 하나의 future 를 공유한다.
+ */
+@Component
+public class MemberBatchLoader implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            task -> daemon(task, "member-batch-scheduler"));
+    private final ExecutorService loaders = Executors.newFixedThreadPool(4,
+            task -> daemon(task, "member-batch-loader"));
+
+    private Map<Long, CompletableFuture<Optional<MemberDto>>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduled;
+
+    public MemberBatchLoader(MemberRepository memberRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${data-jpa.batch-loader.window:5ms}") Duration window,
+                             @Value("${data-jpa.batch-loader.max-batch-size:100}") int maxBatchSize) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<Optional<MemberDto>> findById(Long id) {
+        synchronized (this) {
+            CompletableFuture<Optional<MemberDto>> future = pending.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+
+            if (pending.size() >= maxBatchSize) {
+                dispatch();
+            } else if (scheduled == null) {
+                scheduled = scheduler.schedule(this::dispatchScheduled, windowNanos, TimeUnit.NANOSECONDS);
+            }
+            return future;
+        }
+    }
+
+    private synchronized void dispatchScheduled() {
+        scheduled = null;
+        dispatch();
+    }
+
+    // this 로 동기화된 상태에서 호출한다
+    private void dispatch() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, CompletableFuture<Optional<MemberDto>>> batch = pending;
+        pending = new HashMap<>();
+        loaders.execute(() -> load(batch));
+    }
+
+    private void load(Map<Long, CompletableFuture<Optional<MemberDto>>> batch) {
+        try {
+            // 결과가 MemberNearCache 에 캐시되므로 replica 지연으로 옛 값을 읽지 않도록 primary 에서 읽는다
+            Map<Long, MemberDto> found = ReadWriteRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status ->
+                    memberRepository.findAllByIdIn(batch.keySet()).stream()
+                            .collect(Collectors.toMap(Member::getId, MemberDto::new))));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        loaders.shutdown();
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
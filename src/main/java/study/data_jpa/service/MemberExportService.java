@@ -0,0 +1,85 @@
+package study.data_jpa.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체를 DB 커서에서 읽는 즉시 Writer 로 흘려보낸다. 결과를 List 로 모으지 않으므로 메모리 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(Writer writer) throws IOException {
+        ObjectWriter ndjson = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto();
+             SequenceWriter sequence = ndjson.writeValues(writer)) {
+            Iterator<MemberDto> iterator = members.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                if (++count % FLUSH_INTERVAL == 0) {
+                    sequence.flush();
+                }
+            }
+        }
+        writer.write('\n');
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(Writer writer) throws IOException {
+        writer.write("id,username,teamName\n");
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> iterator = members.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                MemberDto dto = iterator.next();
+                writer.write(String.valueOf(dto.getId()));
+                writer.write(',');
+                writeCsvValue(writer, dto.getUsername());
+                writer.write(',');
+                writeCsvValue(writer, dto.getTeamName());
+                writer.write('\n');
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,129 @@
+package study.data_jpa.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.data_jpa.changefeed.ChangeSubscriber;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.ChangeRecord;
+import study.data_jpa.repository.MemberChangedEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 자주 조회되는 id 의 MemberDto 를 TTL 동안 보관한다. 캐시에 없으면 MemberBatchLoader 로 모아서 조회하고,
+ * 회원이 변경되면 해당 id 를 비운다. 없는 id 도 TTL 동안 캐시한다.
+ * 팀 이름 변경처럼 다른 서버나 벌크 경로의 변경은 change feed 로 받아 비운다.
+ * MemberDto 는 변경 가능하므로 캐시에는 복사본을 넣고, 꺼낼 때도 복사본을 돌려준다.
+ */
+@Component
+public class MemberNearCache implements ChangeSubscriber {
+
+    private final MemberBatchLoader memberBatchLoader;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberNearCache(MemberBatchLoader memberBatchLoader,
+                           @Value("${data-jpa.near-cache.enabled:true}") boolean enabled,
+                           @Value("${data-jpa.near-cache.ttl:5s}") Duration ttl,
+                           @Value("${data-jpa.near-cache.max-entries:10000}") int maxEntries) {
+        this.memberBatchLoader = memberBatchLoader;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<MemberDto> findById(Long id) {
+        if (!enabled) {
+            return memberBatchLoader.findById(id).join();
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && now - entry.expiresAt < 0) {
+                return copy(entry.member);
+            }
+        }
+
+        long gen = generation.get();
+        Optional<MemberDto> member = memberBatchLoader.findById(id).join();
+        synchronized (this) {
+            if (generation.get() == gen) {
+                entries.put(id, new Entry(copy(member), System.nanoTime() + ttlNanos));
+            }
+        }
+        return member;
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        evict(event.memberId());
+        // 커밋 전에 다른 요청이 옛 값을 다시 채울 수 있으므로 트랜잭션 종료 시 한 번 더 비운다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            changedInTransaction().add(event.memberId());
+        }
+    }
+
+    @Override
+    public void onChanges(List<ChangeRecord> changes) {
+        for (ChangeRecord change : changes) {
+            if (change.getEntityType().equals("Team") || change.getEntityId() == null) {
+                evict(null);
+                return;
+            }
+            if (change.getEntityType().equals("Member")) {
+                evict(Long.valueOf(change.getEntityId()));
+            }
+        }
+    }
+
+    public synchronized void evict(Long memberId) {
+        generation.incrementAndGet();
+        if (memberId == null) {
+            entries.clear();
+        } else {
+            entries.remove(memberId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> changedInTransaction() {
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Long> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberNearCache.this);
+                    ids.forEach(MemberNearCache.this::evict);
+                }
+            });
+            changed = ids;
+        }
+        return changed;
+    }
+
+    private static Optional<MemberDto> copy(Optional<MemberDto> member) {
+        return member.map(m -> new MemberDto(m.getId(), m.getUsername(), m.getTeamName()));
+    }
+
+    private record Entry(Optional<MemberDto> member, long expiresAt) {
+    }
+}
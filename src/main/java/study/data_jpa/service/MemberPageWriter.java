@@ -0,0 +1,129 @@
+package study.data_jpa.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.repository.CountCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/**
+ * 회원 페이지를 JDBC 결과에서 바로 JSON 으로 쓴다. 엔티티나 MemberDto 를 만들지 않고,
+ * 필드 이름은 미리 직렬화해 둔다. 행 구조(id, username, teamName)는 MemberDto, MemberProjection 과 같고
+ * 페이지 형식은 PagedModel 과 같은 {"content":[...],"page":{...}} 이다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberPageWriter {
+
+    private static final String SELECT = "select m.member_id, m.username, t.name" +
+            " from member m left join team t on m.team_id = t.team_id";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "age", "m.age",
+            "teamName", "t.name");
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+    private static final SerializedString PAGE = new SerializedString("page");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+    private final CountCache countCache;
+
+    @Transactional(readOnly = true)
+    public void write(Pageable pageable, OutputStream out) throws IOException {
+        // 정렬 속성이 잘못됐으면 count 쿼리나 응답 쓰기 전에 실패한다
+        String sql = sql(pageable);
+        long total = countCache.get("Member.count", new Object[0],
+                () -> em.createNamedQuery("Member.count", Long.class).getSingleResult());
+
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (json) {
+            json.writeStartObject();
+            json.writeFieldName(CONTENT);
+            json.writeStartArray();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    if (pageable.isPaged()) {
+                        ps.setInt(1, pageable.getPageSize());
+                        ps.setLong(2, pageable.getOffset());
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            json.writeStartObject();
+                            json.writeFieldName(ID);
+                            json.writeNumber(rs.getLong(1));
+                            json.writeFieldName(USERNAME);
+                            json.writeString(rs.getString(2));
+                            json.writeFieldName(TEAM_NAME);
+                            json.writeString(rs.getString(3));
+                            json.writeEndObject();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+
+            int size = pageable.isPaged() ? pageable.getPageSize() : (int) total;
+            json.writeFieldName(PAGE);
+            json.writeStartObject();
+            json.writeFieldName(SIZE);
+            json.writeNumber(size);
+            json.writeFieldName(NUMBER);
+            json.writeNumber(pageable.isPaged() ? pageable.getPageNumber() : 0);
+            json.writeFieldName(TOTAL_ELEMENTS);
+            json.writeNumber(total);
+            json.writeFieldName(TOTAL_PAGES);
+            json.writeNumber(size == 0 ? 1 : (total + size - 1) / size);
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    private static String sql(Pageable pageable) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        boolean byId = false;
+        String separator = " order by ";
+        for (Sort.Order order : pageable.getSort()) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            byId |= column.equals("m.member_id");
+            sql.append(separator).append(column).append(order.isAscending() ? " asc" : " desc");
+            separator = ", ";
+        }
+        // 같은 정렬 값이 페이지 경계에 걸쳐도 순서가 바뀌지 않도록 PK 를 마지막 정렬 기준으로 둔다
+        if (!byId) {
+            sql.append(separator).append("m.member_id");
+        }
+        if (pageable.isPaged()) {
+            sql.append(" limit ? offset ?");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package study.data_jpa.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import study.data_jpa.dto.CursorResult;
+import study.data_jpa.repository.MemberCursor;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.MemberSummary;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * age 별 회원 목록을 (username, id) keyset 으로 스크롤한다. 한 slice 를 돌려줄 때 다음 slice 를
+ * 미리 읽어 짧게 캐시해 두므로, 클라이언트가 바로 다음 cursor 를 요청하면 DB 를 기다리지 않는다.
+ */
+@Service
+public class MemberScrollService implements DisposableBean {
+
+    private final MemberRepository memberRepository;
+    private final boolean prefetch;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Prefetched> prefetched;
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    public MemberScrollService(MemberRepository memberRepository,
+                               @Value("${data-jpa.scroll.prefetch:true}") boolean prefetch,
+                               @Value("${data-jpa.scroll.prefetch-ttl:10s}") Duration ttl,
+                               @Value("${data-jpa.scroll.max-entries:1000}") int maxEntries,
+                               @Value("${data-jpa.scroll.prefetch-queue:100}") int prefetchQueue) {
+        this.memberRepository = memberRepository;
+        this.prefetch = prefetch;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.prefetched = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Prefetched> eldest) {
+                return size() > MemberScrollService.this.maxEntries;
+            }
+        };
+        // 미리 읽기는 없어도 되는 작업이므로 큐가 차면 버린다. 버려진 slice 는 요청이 오면 직접 읽는다
+        this.prefetchExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(prefetchQueue), task -> {
+            Thread thread = new Thread(task, "member-scroll-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public CursorResult<MemberSummary> scroll(int age, String cursor, int size) {
+        CompletableFuture<CursorResult<MemberSummary>> ready = takePrefetched(key(age, cursor, size));
+        // 미리 읽기가 실패했으면 예외를 돌려주지 않고 직접 다시 읽는다
+        CursorResult<MemberSummary> result = ready == null ? null : ready.exceptionally(e -> null).join();
+        if (result == null) {
+            result = fetch(age, cursor, size);
+        }
+
+        if (prefetch && result.isHasNext()) {
+            prefetch(age, result.getNextCursor(), size);
+        }
+        return result;
+    }
+
+    // 작업이 실행될 때 등록하므로, 큐에서 버려진 작업이 끝나지 않는 future 를 남기지 않는다
+    private void prefetch(int age, String cursor, int size) {
+        prefetchExecutor.execute(() -> {
+            CompletableFuture<CursorResult<MemberSummary>> next = new CompletableFuture<>();
+            synchronized (prefetched) {
+                prefetched.put(key(age, cursor, size), new Prefetched(next, System.nanoTime() + ttlNanos));
+            }
+            try {
+                next.complete(fetch(age, cursor, size));
+            } catch (RuntimeException e) {
+                next.completeExceptionally(e);
+            }
+        });
+    }
+
+    private CursorResult<MemberSummary> fetch(int age, String cursor, int size) {
+        Window<MemberSummary> window = memberRepository.findByAgeOrderByUsernameAscIdAsc(
+                age, MemberCursor.decode(cursor), Limit.of(size));
+        String nextCursor = window.hasNext() ? MemberCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new CursorResult<>(window.getContent(), nextCursor);
+    }
+
+    private CompletableFuture<CursorResult<MemberSummary>> takePrefetched(String key) {
+        Prefetched entry;
+        synchronized (prefetched) {
+            entry = prefetched.remove(key);
+        }
+        if (entry == null || System.nanoTime() - entry.expiresAt > 0 || entry.result.isCompletedExceptionally()) {
+            return null;
+        }
+        return entry.result;
+    }
+
+    private static String key(int age, String cursor, int size) {
+        return age + ":" + size + ":" + cursor;
+    }
+
+    @Override
+    public void destroy() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private record Prefetched(CompletableFuture<CursorResult<MemberSummary>> result, long expiresAt) {
+    }
+}
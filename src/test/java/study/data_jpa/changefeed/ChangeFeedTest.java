@@ -0,0 +1,150 @@
+package study.data_jpa.changefeed;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.ChangeRecord;
+import study.data_jpa.entity.Item;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.ItemRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+@SpringBootTest(properties = {"data-jpa.change-feed.enabled=true", "data-jpa.change-feed.max-attempts=2"})
+class ChangeFeedTest {
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired TeamRepository teamRepository;
+
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Autowired RecordingSubscriber subscriber;
+
+    @Autowired ItemRepository itemRepository;
+
+    @Autowired ChangeFeedRelay changeFeedRelay;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    private final List<Long> teamIds = new ArrayList<>();
+
+    @Test
+    public void deliverEntityWrites() throws Exception {
+        Team team = save(new Team("feedTeam"));
+        Member member = save(new Member("feed1", 10, team));
+        memberRepository.updateWithRetry(member.getId(), m -> m.setUsername("feed2"), 3);
+
+        awaitChange(c -> c.getEntityType().equals("Team") && team.getId().toString().equals(c.getEntityId())
+                && c.getOperation() == ChangeRecord.Operation.INSERT);
+        awaitChange(c -> c.getEntityType().equals("Member") && member.getId().toString().equals(c.getEntityId())
+                && c.getOperation() == ChangeRecord.Operation.UPDATE);
+    }
+
+    @Test
+    public void deliverBulkUpdate() throws Exception {
+        int before = subscriber.changes.size();
+        memberRepository.bulkAgePlus(1000);
+
+        awaitChange(c -> c.getEntityType().equals("Member") && c.getEntityId() == null
+                && c.getOperation() == ChangeRecord.Operation.BULK_UPDATE);
+        Assertions.assertThat(subscriber.changes.size()).isGreaterThan(before);
+    }
+
+    @Test
+    public void rollbackWritesNothing() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long rolledBackId = transactionTemplate.execute(status -> {
+            Member member = memberRepository.saveAndFlush(new Member("rolledBack", 10));
+            status.setRollbackOnly();
+            return member.getId();
+        });
+        Member committed = save(new Member("committed", 10));
+
+        awaitChange(c -> c.getEntityType().equals("Member") && committed.getId().toString().equals(c.getEntityId()));
+        Assertions.assertThat(subscriber.changes)
+                .noneMatch(c -> c.getEntityType().equals("Member") && rolledBackId.toString().equals(c.getEntityId()));
+    }
+
+    @Test
+    public void failingSubscriberDoesNotBlockOthers() throws Exception {
+        String itemId = "feed-item-" + System.nanoTime();
+        itemRepository.save(new Item(itemId));
+        Member member = save(new Member("afterPoison", 10));
+
+        awaitChange(c -> c.getEntityType().equals("Item") && itemId.equals(c.getEntityId()));
+        awaitChange(c -> c.getEntityType().equals("Member") && member.getId().toString().equals(c.getEntityId()));
+        for (int i = 0; i < 50 && (Long) changeFeedRelay.snapshot().get("deadLettered") == 0; i++) {
+            Thread.sleep(100);
+        }
+        Assertions.assertThat((Long) changeFeedRelay.snapshot().get("deadLettered")).isGreaterThanOrEqualTo(1);
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+        teamRepository.deleteAllById(teamIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+
+    private Team save(Team team) {
+        Team saved = teamRepository.save(team);
+        teamIds.add(saved.getId());
+        return saved;
+    }
+
+    private void awaitChange(Predicate<ChangeRecord> expected) throws InterruptedException {
+        for (int i = 0; i < 50 && subscriber.changes.stream().noneMatch(expected); i++) {
+            Thread.sleep(100);
+        }
+        System.out.println("changes = " + subscriber.changes.size());
+        Assertions.assertThat(subscriber.changes).anyMatch(expected);
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+
+        // Item 변경은 항상 실패하는 구독자
+        @Bean
+        ChangeSubscriber poisonSubscriber() {
+            return changes -> {
+                if (changes.stream().anyMatch(c -> c.getEntityType().equals("Item"))) {
+                    throw new IllegalStateException("poison");
+                }
+            };
+        }
+    }
+
+    static class RecordingSubscriber implements ChangeSubscriber {
+
+        final List<ChangeRecord> changes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onChanges(List<ChangeRecord> changes) {
+            this.changes.addAll(changes);
+        }
+    }
+}
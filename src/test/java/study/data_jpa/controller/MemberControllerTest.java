@@ -0,0 +1,76 @@
+package study.data_jpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void memberNotModified() throws Exception {
+        Member member = memberRepository.save(new Member("etag1", 77));
+        try {
+            String eTag = mockMvc.perform(get("/members/{id}", member.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+        } finally {
+            memberRepository.delete(member);
+        }
+    }
+
+    @Test
+    public void pageNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/members").param("page", "0").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/members").param("page", "0").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void badCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/members").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members/scroll").param("age", "10").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void unknownSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/members").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void tooManyIdsIsBadRequest() throws Exception {
+        String ids = LongStream.rangeClosed(1, 2001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(get("/members").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        // 중복 id 는 하나로 세므로 상한을 넘지 않는다
+        String duplicated = LongStream.rangeClosed(1, 2001).mapToObj(i -> "1").collect(Collectors.joining(","));
+        mockMvc.perform(get("/members").param("ids", duplicated))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,139 @@
+package study.data_jpa.controller;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+import study.data_jpa.controller.MemberResponseCache.CachedResponse;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.service.MemberPageWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class MemberResponseCacheTest {
+
+    @Autowired MemberResponseCache memberResponseCache;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired MemberPageWriter memberPageWriter;
+
+    @Autowired TeamRepository teamRepository;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    private final List<Long> teamIds = new ArrayList<>();
+
+    @Test
+    public void memberEvictedOnWrite() {
+        Member member = save(new Member("cached", 10));
+        AtomicInteger loads = new AtomicInteger();
+
+        CachedResponse first = memberResponseCache.member(member.getId(), () -> {
+            loads.incrementAndGet();
+            return memberRepository.findById(member.getId()).get();
+        });
+        CachedResponse second = memberResponseCache.member(member.getId(), () -> {
+            loads.incrementAndGet();
+            return memberRepository.findById(member.getId()).get();
+        });
+
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+        Assertions.assertThat(second.eTag()).isEqualTo(first.eTag());
+
+        memberRepository.updateWithRetry(member.getId(), m -> m.setUsername("cached2"), 3);
+        CachedResponse third = memberResponseCache.member(member.getId(), () -> {
+            loads.incrementAndGet();
+            return memberRepository.findById(member.getId()).get();
+        });
+
+        System.out.println("eTag = " + first.eTag() + " -> " + third.eTag());
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+        Assertions.assertThat(third.eTag()).isNotEqualTo(first.eTag());
+        Assertions.assertThat(new String(third.body())).isEqualTo("cached2");
+    }
+
+    @Test
+    public void pageEvictedOnWrite() {
+        PageRequest pageRequest = PageRequest.of(0, 5);
+        AtomicInteger loads = new AtomicInteger();
+
+        memberResponseCache.page(pageRequest, out -> {
+            loads.incrementAndGet();
+            memberPageWriter.write(pageRequest, out);
+        });
+        memberResponseCache.page(pageRequest, out -> {
+            loads.incrementAndGet();
+            memberPageWriter.write(pageRequest, out);
+        });
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+
+        save(new Member("paged", 10));
+        memberResponseCache.page(pageRequest, out -> {
+            loads.incrementAndGet();
+            memberPageWriter.write(pageRequest, out);
+        });
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void pageEvictedOnTeamRename() {
+        PageRequest pageRequest = PageRequest.of(0, 5);
+        AtomicInteger loads = new AtomicInteger();
+        Team team = save(new Team("renameTeam"));
+
+        memberResponseCache.page(pageRequest, out -> {
+            loads.incrementAndGet();
+            memberPageWriter.write(pageRequest, out);
+        });
+        team.setName("renamedTeam");
+        teamRepository.save(team);
+        memberResponseCache.page(pageRequest, out -> {
+            loads.incrementAndGet();
+            memberPageWriter.write(pageRequest, out);
+        });
+
+        // change feed 가 꺼져 있어도 팀 변경 이벤트로 목록 캐시가 비워진다
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void boundedByBytes() {
+        MemberResponseCache cache = new MemberResponseCache(true, 1000, DataSize.ofBytes(10), Duration.ofMinutes(1));
+
+        cache.page(PageRequest.of(0, 5), out -> out.write(new byte[6]));
+        cache.page(PageRequest.of(1, 5), out -> out.write(new byte[6]));
+        cache.page(PageRequest.of(2, 5), out -> out.write(new byte[11]));
+
+        Assertions.assertThat(cache.usedBytes()).isEqualTo(6);
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+        teamRepository.deleteAllById(teamIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+
+    private Team save(Team team) {
+        Team saved = teamRepository.save(team);
+        teamIds.add(saved.getId());
+        return saved;
+    }
+}
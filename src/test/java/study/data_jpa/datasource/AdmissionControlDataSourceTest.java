@@ -0,0 +1,32 @@
+package study.data_jpa.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+class AdmissionControlDataSourceTest {
+
+    @Test
+    public void boundedAdmission() throws Exception {
+        DriverManagerDataSource target = new DriverManagerDataSource("jdbc:h2:mem:admission", "sa", "");
+        AdmissionControlDataSource dataSource = new AdmissionControlDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        Assertions.assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        try (Connection second = dataSource.getConnection()) {
+            Assertions.assertThat(second.isValid(1)).isTrue();
+        }
+
+        System.out.println("admission = " + dataSource.snapshot());
+        Assertions.assertThat(dataSource.snapshot().get("acquired")).isEqualTo(2L);
+        Assertions.assertThat(dataSource.snapshot().get("rejected")).isEqualTo(1L);
+        Assertions.assertThat(dataSource.snapshot().get("inUse")).isEqualTo(0);
+    }
+}
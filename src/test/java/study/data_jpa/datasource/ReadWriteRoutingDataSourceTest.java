@@ -0,0 +1,93 @@
+package study.data_jpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+class ReadWriteRoutingDataSourceTest {
+
+    DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", "");
+    DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void routeReadOnlyToReplica() throws Exception {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica0", replica, "select 0")), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        Assertions.assertThat(url(dataSource)).contains("primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Assertions.assertThat(url(dataSource)).contains("replica");
+
+        Assertions.assertThat(routing.getRouted("replica0")).isEqualTo(1);
+    }
+
+    @Test
+    public void onPrimaryOverridesReadOnly() throws Exception {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica0", replica, "select 0")), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        String url = ReadWriteRoutingDataSource.onPrimary(() -> {
+            try {
+                return url(dataSource);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Assertions.assertThat(url).contains("primary");
+        Assertions.assertThat(url(dataSource)).contains("replica");
+    }
+
+    @Test
+    public void fallbackToPrimaryWhenLagging() throws Exception {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica0", replica, "select 5")), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(url(dataSource)).contains("primary");
+        Assertions.assertThat(routing.getFallbacks()).isEqualTo(1);
+    }
+
+    @Test
+    public void closeReplicaPools() throws Exception {
+        HikariDataSource replicaPool = new HikariDataSource();
+        replicaPool.setJdbcUrl("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        replicaPool.setUsername("sa");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary,
+                List.of(new ReadWriteRoutingDataSource.Replica("replica0",
+                        new AdmissionControlDataSource(replicaPool, 1, Duration.ofSeconds(1)), "select 0")),
+                Duration.ofSeconds(1));
+
+        routing.close();
+
+        Assertions.assertThat(replicaPool.isClosed()).isTrue();
+    }
+
+    private static String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
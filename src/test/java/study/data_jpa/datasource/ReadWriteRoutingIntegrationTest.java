@@ -0,0 +1,55 @@
+package study.data_jpa.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+        "data-jpa.datasource.routing.enabled=true",
+        "data-jpa.datasource.replicas[0].url=jdbc:h2:tcp://localhost/~/datajpa"})
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired DataSource dataSource;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @Test
+    public void readOnlyToReplicaAndWriteToPrimary() throws Exception {
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        String username = "routing-" + System.nanoTime();
+
+        long primaryBefore = routing.getRouted(ReadWriteRoutingDataSource.PRIMARY);
+        long replicaBefore = routing.getRouted("replica0");
+        save(new Member(username, 10));
+        Assertions.assertThat(routing.getRouted(ReadWriteRoutingDataSource.PRIMARY)).isGreaterThan(primaryBefore);
+        Assertions.assertThat(routing.getRouted("replica0")).isEqualTo(replicaBefore);
+
+        primaryBefore = routing.getRouted(ReadWriteRoutingDataSource.PRIMARY);
+        replicaBefore = routing.getRouted("replica0");
+        Assertions.assertThat(memberRepository.findReadOnlyByUsername(username)).hasSize(1);
+        Assertions.assertThat(routing.getRouted("replica0")).isEqualTo(replicaBefore + 1);
+        Assertions.assertThat(routing.getRouted(ReadWriteRoutingDataSource.PRIMARY)).isEqualTo(primaryBefore);
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.repository.MemberRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,5 +74,22 @@ class MemberTest {
 
     }
 
+    @Test
+    public void batchAuditStamp() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(new Member("audit" + i, 10));
+        }
+        memberRepository.saveAllBatched(members, 5);
+
+        Member first = memberRepository.findById(members.get(0).getId()).get();
+        Member last = memberRepository.findById(members.get(4).getId()).get();
+
+        assertNotNull(first.getCreatedBy());
+        assertEquals(first.getCreatedBy(), last.getCreatedBy());
+        assertEquals(first.getCreatedDate(), last.getCreatedDate());
+        assertEquals(first.getCreatedBy(), first.getUpdatedBy());
+    }
+
 
 }
\ No newline at end of file
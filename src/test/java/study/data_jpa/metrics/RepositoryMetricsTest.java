@@ -0,0 +1,50 @@
+package study.data_jpa.metrics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.Map;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired RepositoryMetrics repositoryMetrics;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void recordMethodMetrics() {
+        memberRepository.save(new Member("metricsMember", 10));
+        em.flush();
+        em.clear();
+
+        Map<String, Object> before = findUserMetrics();
+        memberRepository.findUser("metricsMember", 10);
+        Map<String, Object> after = findUserMetrics();
+        System.out.println("metrics = " + after);
+
+        Assertions.assertThat(diff(after, before, "calls")).isEqualTo(1);
+        Assertions.assertThat(diff(after, before, "statements")).isEqualTo(1);
+        Assertions.assertThat(diff(after, before, "rows")).isEqualTo(1);
+        Assertions.assertThat(diff(after, before, "entities")).isEqualTo(1);
+    }
+
+    private Map<String, Object> findUserMetrics() {
+        return repositoryMetrics.snapshot().getOrDefault("MemberRepository.findUser", Map.of());
+    }
+
+    private static long diff(Map<String, Object> after, Map<String, Object> before, String key) {
+        return (Long) after.get(key) - (Long) before.getOrDefault(key, 0L);
+    }
+}
@@ -0,0 +1,54 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Item;
+import study.data_jpa.metrics.QueryCounter;
+
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class ItemRepositoryTest {
+
+    @Autowired ItemRepository itemRepository;
+
+    @Autowired QueryCounter queryCounter;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void saveWithoutSelect() {
+        List<Item> items = List.of(new Item("A"), new Item("B"), new Item("C"));
+
+        List<String> statements = queryCounter.capture(() -> {
+            itemRepository.saveAll(items);
+            em.flush();
+        });
+
+        for (String statement : statements) {
+            System.out.println("statement = " + statement);
+        }
+        Assertions.assertThat(statements).noneMatch(sql -> sql.trim().toLowerCase().startsWith("select"));
+        Assertions.assertThat(items).noneMatch(Item::isNew);
+        Assertions.assertThat(items.get(0).getCreatedDate()).isNotNull();
+    }
+
+    @Test
+    public void upsertAll() {
+        itemRepository.save(new Item("X"));
+
+        int inserted = itemRepository.upsertAll(List.of(new Item("X"), new Item("Y"), new Item("Z")));
+        int again = itemRepository.upsertAll(List.of(new Item("Y"), new Item("Z")));
+
+        Assertions.assertThat(inserted).isEqualTo(2);
+        Assertions.assertThat(again).isEqualTo(0);
+        Assertions.assertThat(itemRepository.count()).isEqualTo(3);
+    }
+}
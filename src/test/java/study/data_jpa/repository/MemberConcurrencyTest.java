@@ -0,0 +1,86 @@
+package study.data_jpa.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 스레드가 같은 회원의 age 를 동시에 바꿔도 갱신이 유실되지 않는지 확인한다.
+ */
+@SpringBootTest
+class MemberConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 25;
+    private static final int RETRY_UPDATES_PER_THREAD = 10;
+
+    @Autowired MemberRepository memberRepository;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @Test
+    public void concurrentAgeUpdates() throws Exception {
+        Member member = save(new Member("hotMember", 0));
+        Long id = member.getId();
+        AtomicInteger attempts = new AtomicInteger();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                for (int j = 0; j < INCREMENTS_PER_THREAD; j++) {
+                    memberRepository.incrementAge(id, 1);
+                }
+                return null;
+            });
+            tasks.add(() -> {
+                for (int j = 0; j < RETRY_UPDATES_PER_THREAD; j++) {
+                    memberRepository.updateWithRetry(id, m -> {
+                        attempts.incrementAndGet();
+                        m.setAge(m.getAge() + 1);
+                    }, 100);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Member result = memberRepository.findById(id).get();
+        int expected = THREADS * (INCREMENTS_PER_THREAD + RETRY_UPDATES_PER_THREAD);
+        System.out.println("age = " + result.getAge() + ", version = " + result.getVersion()
+                + ", retry attempts = " + attempts.get());
+
+        Assertions.assertThat(result.getAge()).isEqualTo(expected);
+        Assertions.assertThat(result.getVersion()).isEqualTo(expected);
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
 
 import java.util.List;
 
@@ -16,6 +17,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberRepository;
 
+    @Autowired
+    TeamJpaRepository teamRepository;
+
     @Test
     public void testMember() {
         Member member = new Member("you jedong");
@@ -47,6 +51,20 @@ class MemberJpaRepositoryTest {
 
     }
 
+    @Test
+    public void findByPageAfter() {
+        Member member1 = memberRepository.save(new Member("you jedong1", 12));
+        Member member2 = memberRepository.save(new Member("you jedong2", 12));
+        Member member3 = memberRepository.save(new Member("you jedong3", 12));
+
+        List<Member> first = memberRepository.findByPage(12, 0, 2);
+        Member last = first.get(first.size() - 1);
+        List<Member> next = memberRepository.findByPageAfter(12, last.getUsername(), last.getId(), 2);
+
+        Assertions.assertThat(first).containsExactly(member3, member2);
+        Assertions.assertThat(next).containsExactly(member1);
+    }
+
     @Test
     public void bulkAgePlus() {
         memberRepository.save(new Member("you jedong0", 9));
@@ -64,4 +82,15 @@ class MemberJpaRepositoryTest {
     }
 
 
-}
\ No newline at end of file
+    @Test
+    public void namedQueryCount() {
+        long memberCount = memberRepository.count();
+        long teamCount = teamRepository.count();
+        memberRepository.save(new Member("you jedong", 10));
+        teamRepository.save(new Team("teamA"));
+
+        Assertions.assertThat(memberRepository.count()).isEqualTo(memberCount + 1);
+        Assertions.assertThat(teamRepository.count()).isEqualTo(teamCount + 1);
+        Assertions.assertThat(teamRepository.findAll()).hasSize((int) teamCount + 1);
+    }
+}
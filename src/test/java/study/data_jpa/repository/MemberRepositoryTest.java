@@ -3,13 +3,18 @@ package study.data_jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
@@ -20,6 +25,7 @@ import study.data_jpa.entity.Team;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @SpringBootTest
@@ -63,6 +69,22 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void saveAllBatched() {
+        Team team = new Team("batchTeam");
+        teamRepository.saveAllBatched(List.of(team), 10);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            members.add(new Member("batch" + i, 30, team));
+        }
+        int saved = memberRepository.saveAllBatched(members, 10);
+
+        Assertions.assertThat(saved).isEqualTo(25);
+        Assertions.assertThat(members).allMatch(member -> member.getId() != null);
+        Assertions.assertThat(em.contains(members.get(0))).isFalse();
+    }
+
     @Test
     public void findByUsernameAndAgeGreaterThen() {
         Member m1 = new Member("AAA", 10);
@@ -121,6 +143,37 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void streamMemberDto() {
+        Team team = new Team("streamTeam");
+        teamRepository.save(team);
+        memberRepository.save(new Member("streamMember", 20, team));
+
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            List<MemberDto> result = stream.filter(dto -> dto.getUsername().equals("streamMember")).toList();
+            Assertions.assertThat(result).hasSize(1);
+            Assertions.assertThat(result.get(0).getTeamName()).isEqualTo("streamTeam");
+        }
+    }
+
+    @Test
+    public void findMemberDtoPage() {
+        Team team = new Team("dtoTeam");
+        teamRepository.save(team);
+        memberRepository.save(new Member("dtoMember1", 20, team));
+        memberRepository.save(new Member("dtoMember2", 20));
+
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(PageRequest.of(0, 100, Sort.by("username")));
+
+        Assertions.assertThat(page.getContent())
+                .extracting(MemberDto::getUsername)
+                .contains("dtoMember1", "dtoMember2");
+        Assertions.assertThat(page.getContent())
+                .filteredOn(dto -> dto.getUsername().equals("dtoMember1"))
+                .extracting(MemberDto::getTeamName)
+                .containsExactly("dtoTeam");
+    }
+
     @Test
     public void findNames() {
         Member member1 = new Member("member1", 20);
@@ -138,6 +191,24 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void findNamesLargeList() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("inList" + i, 10));
+        }
+        memberRepository.saveAllBatched(members, 10);
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            names.add("inList" + i);
+        }
+
+        Assertions.assertThat(memberRepository.findByNames(names.subList(0, 3))).hasSize(3);
+        Assertions.assertThat(memberRepository.findByNames(names.subList(0, 3000))).hasSize(10);
+        Assertions.assertThat(memberRepository.findByNames(names)).hasSize(10);
+    }
+
     @Test
     public void returnType() {
         Member member1 = new Member("member1", 20);
@@ -187,6 +258,23 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void pagingCountCache() {
+        memberRepository.save(new Member("member1", 77));
+        memberRepository.save(new Member("member2", 77));
+
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Page<Member> before = memberRepository.findByAge(77, pageRequest);
+        Page<Member> cached = memberRepository.findByAge(77, pageRequest);
+
+        memberRepository.save(new Member("member3", 77));
+        Page<Member> after = memberRepository.findByAge(77, pageRequest);
+
+        Assertions.assertThat(before.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(cached.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(after.getTotalElements()).isEqualTo(3);
+    }
+
     @Test
     public void slice() {
         memberRepository.save(new Member("member1", 10));
@@ -212,6 +300,42 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void keysetScroll() {
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 10));
+        memberRepository.save(new Member("member3", 10));
+        memberRepository.save(new Member("member4", 10));
+
+        Window<Member> first = memberRepository.findAllByOrderByUsernameAscIdAsc(ScrollPosition.keyset(), Limit.of(3));
+        String cursor = MemberCursor.encode(first.positionAt(first.size() - 1));
+        Window<Member> second = memberRepository.findAllByOrderByUsernameAscIdAsc(MemberCursor.decode(cursor), Limit.of(3));
+
+        for (Member member : second) {
+            System.out.println("member = " + member);
+        }
+
+        Assertions.assertThat(first.size()).isEqualTo(3);
+        Assertions.assertThat(first.hasNext()).isTrue();
+        Assertions.assertThat(second.getContent()).doesNotContainAnyElementsOf(first.getContent());
+    }
+
+    @Test
+    public void keysetScrollProjection() {
+        memberRepository.save(new Member("scroll1", 88));
+        memberRepository.save(new Member("scroll2", 88));
+        memberRepository.save(new Member("scroll3", 88));
+
+        Window<MemberSummary> first = memberRepository.findByAgeOrderByUsernameAscIdAsc(88, ScrollPosition.keyset(), Limit.of(2));
+        String cursor = MemberCursor.encode(first.positionAt(first.size() - 1));
+        Window<MemberSummary> second = memberRepository.findByAgeOrderByUsernameAscIdAsc(88, MemberCursor.decode(cursor), Limit.of(2));
+
+        Assertions.assertThat(first.getContent()).extracting(MemberSummary::getUsername).containsExactly("scroll1", "scroll2");
+        Assertions.assertThat(first.hasNext()).isTrue();
+        Assertions.assertThat(second.getContent()).extracting(MemberSummary::getUsername).containsExactly("scroll3");
+        Assertions.assertThat(second.hasNext()).isFalse();
+    }
+
     @Test
     public void bulkAgePlus() {
         memberRepository.save(new Member("you jedong0", 9));
@@ -233,6 +357,26 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void bulkAgePlusChunked() {
+        Member keep = memberRepository.save(new Member("chunk0", 299));
+        Member member = memberRepository.save(new Member("chunk1", 300));
+        memberRepository.save(new Member("chunk2", 301));
+        memberRepository.save(new Member("chunk3", 302));
+        memberRepository.save(new Member("chunk4", 303));
+        memberRepository.save(new Member("chunk5", 304));
+
+        List<BulkUpdateProgress> progresses = new ArrayList<>();
+        long resultCnt = memberRepository.bulkAgePlus(300, 2, progresses::add);
+
+        Assertions.assertThat(resultCnt).isEqualTo(5);
+        Assertions.assertThat(progresses).hasSize(3);
+        Assertions.assertThat(progresses.get(2).totalRows()).isEqualTo(5);
+        Assertions.assertThat(em.contains(keep)).isTrue();
+        Assertions.assertThat(keep.getAge()).isEqualTo(299);
+        Assertions.assertThat(member.getAge()).isEqualTo(301);
+    }
+
     @Test
     public void findMemberLazy() {
         Team team1 = new Team("Team1");
@@ -252,6 +396,32 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void batchFetchTeam() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("batchFetchTeam" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("batchFetch" + i, 10, team));
+            names.add("batchFetch" + i);
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Member> members = memberRepository.findByNames(names);
+        for (Member member : members) {
+            System.out.println("member.team = " + member.getTeam().getName());
+        }
+
+        // member 조회 1번 + team 10개를 IN 절 한 번으로 초기화
+        Assertions.assertThat(members).hasSize(10);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
     @Test
     public void queryHint() {
         Member member = new Member("member1", 10);
@@ -266,6 +436,40 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void teamSecondLevelCache() {
+        Team team = new Team("cachedTeam");
+        teamRepository.save(team);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        teamRepository.findById(team.getId());
+        em.clear();
+        Team findTeam = teamRepository.findById(team.getId()).get();
+
+        Assertions.assertThat(findTeam.getName()).isEqualTo("cachedTeam");
+        Assertions.assertThat(statistics.getDomainDataRegionStatistics("team").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void readOnlyFragment() {
+        Member member = new Member("readOnlyMember", 10);
+        memberRepository.save(member);
+        em.flush();
+        em.clear();
+
+        List<Member> members = memberRepository.readOnly(() -> memberRepository.findUser("readOnlyMember", 10));
+        members.get(0).setUsername("changed");
+        em.flush();
+        em.clear();
+
+        Member findMember = memberRepository.findById(member.getId()).get();
+        Assertions.assertThat(findMember.getUsername()).isEqualTo("readOnlyMember");
+    }
+
     @Test
     public void callCustom() {
 
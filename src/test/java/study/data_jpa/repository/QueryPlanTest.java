@@ -0,0 +1,194 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.NamedNativeQueries;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.metrics.QueryCounter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * MemberRepository 의 find/stream 메서드와 Member 의 named query 를 모두 실행해 만든 SQL 을 EXPLAIN 하고,
+ * 행 수가 ROW_THRESHOLD 이상인데 member 테이블을 full scan 하는 조회가 있으면 실패한다.
+ * 새 finder 를 추가하면 따로 테스트를 쓰지 않아도 검사 대상이 된다.
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTest {
+
+    private static final int ROW_THRESHOLD = 100;
+
+    // 조건 없이 전체를 읽는 조회. 계획은 출력하지만 full scan 이어도 실패시키지 않는다
+    private static final Set<String> UNFILTERED = Set.of(
+            "findAll", "findMemberCustom", "findUsernameList", "findMemberDto", "streamMemberDto",
+            "findMemberDtoPage", "findByNativeProjection", "findAllByOrderByUsernameAscIdAsc",
+            "Member.all", "Member.count", "Member.nativeCount");
+
+    private static final Map<String, Object> NAMED_PARAMETERS = Map.of(
+            "age", 49,
+            "username", "plan1",
+            "id", 1L,
+            "from", 0L,
+            "to", 100L,
+            "delta", 1,
+            "names", List.of("plan1", "plan2"));
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired QueryCounter queryCounter;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    public void setUp() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("plan" + i, i % 50));
+        }
+        memberRepository.saveAllBatched(members, 500);
+        em.createNativeQuery("analyze").executeUpdate();
+    }
+
+    @Test
+    public void repositoryFinders() {
+        List<Method> finders = new ArrayList<>();
+        for (Class<?> type : List.of(MemberRepository.class, MemberRepositoryCustom.class)) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.getName().startsWith("find") || method.getName().startsWith("stream")) {
+                    finders.add(method);
+                }
+            }
+        }
+        finders.sort(Comparator.comparing(Method::getName));
+        Assertions.assertThat(finders).hasSizeGreaterThanOrEqualTo(20);
+
+        for (Method finder : finders) {
+            Object[] args = Arrays.stream(finder.getParameters()).map(QueryPlanTest::sampleArgument).toArray();
+            assertNoFullScan(finder.getName(), () -> {
+                try {
+                    Object result = finder.invoke(memberRepository, args);
+                    if (result instanceof Stream<?> stream) {
+                        try (stream) {
+                            stream.count();
+                        }
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(finder.getName(), e);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void namedQueries() {
+        for (NamedQuery namedQuery : Member.class.getAnnotation(NamedQueries.class).value()) {
+            assertNoFullScan(namedQuery.name(), () -> {
+                Query query = em.createNamedQuery(namedQuery.name());
+                for (Parameter<?> parameter : query.getParameters()) {
+                    query.setParameter(parameter.getName(), NAMED_PARAMETERS.get(parameter.getName()));
+                }
+                if (namedQuery.query().startsWith("update")) {
+                    query.executeUpdate();
+                } else {
+                    query.getResultList();
+                }
+            });
+        }
+        for (NamedNativeQuery namedQuery : Member.class.getAnnotation(NamedNativeQueries.class).value()) {
+            assertNoFullScan(namedQuery.name(), () -> {
+                Query query = em.createNamedQuery(namedQuery.name());
+                for (Parameter<?> parameter : query.getParameters()) {
+                    query.setParameter(parameter.getPosition(), new String[]{"plan1", "plan2"});
+                }
+                query.getResultList();
+            });
+        }
+    }
+
+    private static Object sampleArgument(java.lang.reflect.Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == String.class) {
+            return "plan1";
+        }
+        if (type == int.class || type == Integer.class) {
+            return 10;
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+        }
+        if (type == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        if (type == Limit.class) {
+            return Limit.of(3);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Type element = ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+            return element == Long.class ? List.of(1L, 2L) : List.of("plan1", "plan2");
+        }
+        throw new IllegalArgumentException("샘플 인자를 만들 수 없는 타입입니다: " + parameter);
+    }
+
+    private void assertNoFullScan(String name, Runnable finder) {
+        List<String> statements = queryCounter.capture(finder);
+        Assertions.assertThat(statements).as(name).isNotEmpty();
+
+        long rows = ((Number) em.createNativeQuery("select count(*) from member").getSingleResult()).longValue();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            System.out.println("plan = " + name + " : " + plan);
+            if (rows >= ROW_THRESHOLD && !UNFILTERED.contains(name)) {
+                Assertions.assertThat(plan).as(sql).doesNotContainIgnoringCase("MEMBER.tableScan");
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+                int parameterCount = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    ps.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
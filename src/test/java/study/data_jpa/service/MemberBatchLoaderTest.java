@@ -0,0 +1,73 @@
+package study.data_jpa.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+@SpringBootTest
+class MemberBatchLoaderTest {
+
+    @Autowired MemberBatchLoader memberBatchLoader;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired EntityManagerFactory emf;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @Test
+    public void coalesceFindById() {
+        Member member1 = save(new Member("loader1", 10));
+        Member member2 = save(new Member("loader2", 10));
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        CompletableFuture<Optional<MemberDto>> f1 = memberBatchLoader.findById(member1.getId());
+        CompletableFuture<Optional<MemberDto>> f2 = memberBatchLoader.findById(member2.getId());
+        CompletableFuture<Optional<MemberDto>> f3 = memberBatchLoader.findById(member1.getId());
+        CompletableFuture<Optional<MemberDto>> missing = memberBatchLoader.findById(-1L);
+        CompletableFuture.allOf(f1, f2, f3, missing).join();
+
+        Assertions.assertThat(f1.join().get().getUsername()).isEqualTo("loader1");
+        Assertions.assertThat(f2.join().get().getUsername()).isEqualTo("loader2");
+        Assertions.assertThat(f3).isSameAs(f1);
+        Assertions.assertThat(missing.join()).isEmpty();
+        Assertions.assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(1);
+    }
+
+    @Test
+    public void findAllByIdIn() {
+        Member member1 = save(new Member("byIds1", 10));
+        Member member2 = save(new Member("byIds2", 10));
+
+        List<Member> members = memberRepository.findAllByIdIn(List.of(member1.getId(), member2.getId()));
+
+        Assertions.assertThat(members).extracting(Member::getUsername).containsExactlyInAnyOrder("byIds1", "byIds2");
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+}
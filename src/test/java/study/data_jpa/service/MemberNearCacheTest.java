@@ -0,0 +1,80 @@
+package study.data_jpa.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.controller.MemberDtoConverter;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+class MemberNearCacheTest {
+
+    @Autowired MemberNearCache memberNearCache;
+
+    @Autowired MemberDtoConverter memberDtoConverter;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired EntityManagerFactory emf;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @Test
+    public void hotIdSkipsDatabase() {
+        Member member = save(new Member("near1", 10));
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+
+        MemberDto first = memberDtoConverter.convert(String.valueOf(member.getId()));
+        MemberDto second = memberDtoConverter.convert(String.valueOf(member.getId()));
+
+        Assertions.assertThat(first.getUsername()).isEqualTo("near1");
+        Assertions.assertThat(second).isEqualTo(first).isNotSameAs(first);
+        Assertions.assertThat(statistics.getPrepareStatementCount() - before).isEqualTo(1);
+    }
+
+    @Test
+    public void callerChangesDoNotLeakIntoCache() {
+        Member member = save(new Member("near4", 10));
+
+        memberNearCache.findById(member.getId()).get().setUsername("changed");
+
+        Assertions.assertThat(memberNearCache.findById(member.getId())).get()
+                .extracting(MemberDto::getUsername).isEqualTo("near4");
+    }
+
+    @Test
+    public void evictedOnWrite() {
+        Member member = save(new Member("near2", 10));
+        Assertions.assertThat(memberNearCache.findById(member.getId())).get()
+                .extracting(MemberDto::getUsername).isEqualTo("near2");
+
+        memberRepository.updateWithRetry(member.getId(), m -> m.setUsername("near3"), 3);
+
+        Assertions.assertThat(memberNearCache.findById(member.getId())).get()
+                .extracting(MemberDto::getUsername).isEqualTo("near3");
+    }
+
+    // 공유 DB 에 커밋한 행은 다른 테스트의 count 에 섞이지 않도록 지운다
+    @AfterEach
+    public void cleanUp() {
+        memberRepository.deleteAllById(memberIds);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+}
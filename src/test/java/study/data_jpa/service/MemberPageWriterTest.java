@@ -0,0 +1,58 @@
+package study.data_jpa.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class MemberPageWriterTest {
+
+    @Autowired MemberPageWriter memberPageWriter;
+
+    @Autowired MemberRepository memberRepository;
+
+    @Autowired TeamRepository teamRepository;
+
+    @Autowired ObjectMapper objectMapper;
+
+    @Test
+    public void sameRowsAsMemberDtoPage() throws Exception {
+        Team team = teamRepository.save(new Team("writerTeam"));
+        memberRepository.save(new Member("writer1", 10, team));
+        memberRepository.save(new Member("writer2", 10));
+        memberRepository.save(new Member("writer3", 10, team));
+        memberRepository.flush();
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        memberPageWriter.write(pageRequest, out);
+        System.out.println("json = " + out);
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        List<MemberDto> expected = memberRepository.findMemberDtoPage(pageRequest).getContent();
+
+        Assertions.assertThat(json.get("content")).hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode row = json.get("content").get(i);
+            Assertions.assertThat(row.get("id").asLong()).isEqualTo(expected.get(i).getId());
+            Assertions.assertThat(row.get("username").asText()).isEqualTo(expected.get(i).getUsername());
+        }
+        Assertions.assertThat(json.get("page").get("size").asInt()).isEqualTo(2);
+        Assertions.assertThat(json.get("page").get("totalElements").asLong()).isEqualTo(memberRepository.count());
+    }
+}